@@ -0,0 +1,105 @@
+package benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs benchmarks with the GC profiler reporting allocation rate per operation and writes results as JSON,
+ * so results of different releases can be compared.
+ * The first argument is the result file, {@code jmh-result.json} by default, the other ones are
+ * usual JMH command line options, e.g. a benchmark regexp or {@code -p chainLength=64}.
+ * Results of {@link ExecutionBenchmark} are also printed as times per element and speedups over the staged execution.
+ * Forks get the Vector API module only if the running JDK has it, so benchmarks also run on JDK 8.
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT = "jmh-result.json";
+    private static final String BASELINE = "staged";
+    private static final String VECTOR_MODULE = "--add-modules=jdk.incubator.vector";
+    private static final int VECTOR_API_VERSION = 17;
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        boolean hasResult = args.length > 0 && args[0].endsWith(".json");
+        String result = hasResult ? args[0] : DEFAULT_RESULT;
+        String[] jmhArgs = hasResult ? Arrays.copyOfRange(args, 1, args.length) : args;
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result);
+        if (javaVersion() >= VECTOR_API_VERSION) {
+            List<String> jvmArgs = new ArrayList<>(commandLine.getJvmArgsAppend().orElse(Collections.emptyList()));
+            jvmArgs.add(VECTOR_MODULE);
+            builder.jvmArgsAppend(jvmArgs.toArray(new String[0]));
+        }
+        printSpeedups(new Runner(builder.build()).run());
+    }
+
+    /**
+     * Returns the feature version of the running JDK, {@code java.specification.version} is {@code 1.8} on JDK 8.
+     */
+    private static int javaVersion() {
+        String version = System.getProperty("java.specification.version");
+        return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+    }
+
+    /**
+     * Groups scores of {@link ExecutionBenchmark} by parameters and divides the baseline score by every other one.
+     */
+    private static void printSpeedups(Collection<RunResult> results) {
+        Map<String, Map<String, Double>> scores = new LinkedHashMap<>();
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            String benchmark = params.getBenchmark();
+            if (!benchmark.startsWith(ExecutionBenchmark.class.getName() + '.')) {
+                continue;
+            }
+            StringBuilder key = new StringBuilder();
+            for (String param : params.getParamsKeys()) {
+                key.append(param).append('=').append(params.getParam(param)).append(' ');
+            }
+            scores.computeIfAbsent(key.toString(), k -> new LinkedHashMap<>())
+                    .put(benchmark.substring(benchmark.lastIndexOf('.') + 1), result.getPrimaryResult().getScore());
+            sizes.put(key.toString(), Integer.parseInt(params.getParam("size")));
+        }
+        if (scores.isEmpty()) {
+            return;
+        }
+        System.out.println();
+        System.out.println("Execution time per element and speedup over " + BASELINE + " execution:");
+        for (Map.Entry<String, Map<String, Double>> entry : scores.entrySet()) {
+            int size = sizes.get(entry.getKey());
+            Double baseline = entry.getValue().get(BASELINE);
+            StringBuilder line = new StringBuilder(entry.getKey().trim());
+            for (Map.Entry<String, Double> score : entry.getValue().entrySet()) {
+                line.append(String.format(Locale.ROOT, " %s %.2f ns", score.getKey(), score.getValue() / size));
+                if (baseline != null && !score.getKey().equals(BASELINE)) {
+                    line.append(String.format(Locale.ROOT, " (x%.2f)", baseline / score.getValue()));
+                }
+            }
+            System.out.println(line);
+        }
+    }
+}
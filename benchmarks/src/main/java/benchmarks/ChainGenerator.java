@@ -0,0 +1,100 @@
+package benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates reproducible <call-chain>s of the given shape.
+ * Arithmetic leaves are {@code element} or small constants joined with '+' and '-' up to the nesting depth.
+ * The first map multiplies {@code degree} such sums, the other maps are linear,
+ * so the converted map has the given degree whatever the chain length is.
+ * Filters are comparisons of linear sums with constants joined with '&' and '|' up to the nesting depth.
+ * Every chain starts with {@code map{(element+salt)}}, so chains of different salts convert without common
+ * subexpressions, and caches of interned nodes do not hide the cost of conversion.
+ */
+final class ChainGenerator {
+
+    private static final char[] COMPARISONS = {'<', '>', '='};
+
+    private final Random random;
+    private final int depth;
+    private final int degree;
+
+    private ChainGenerator(long seed, int depth, int degree) {
+        this.random = new Random(seed);
+        this.depth = depth;
+        this.degree = degree;
+    }
+
+    /**
+     * @param seed        seed of the random generator
+     * @param length      number of calls
+     * @param depth       nesting depth of expressions of calls
+     * @param degree      degree of the first map
+     * @param filterShare share of filters among calls from 0 to 1
+     * @param salt        constant added to element before the generated calls
+     * @return generated <call-chain> of {@code length + 1} calls
+     */
+    static String generate(long seed, int length, int depth, int degree, double filterShare, int salt) {
+        return new ChainGenerator(seed, depth, degree).chain(length, filterShare, salt);
+    }
+
+    private String chain(int length, double filterShare, int salt) {
+        StringBuilder result = new StringBuilder("map{(element+").append(salt).append(")}");
+        boolean firstMap = true;
+        for (int i = 0; i < length; i++) {
+            result.append("%>%");
+            if (random.nextDouble() < filterShare) {
+                result.append("filter{");
+                logical(result, depth);
+            } else {
+                result.append("map{");
+                if (firstMap) {
+                    for (int k = 1; k < degree; k++) {
+                        result.append('(');
+                    }
+                    linear(result, depth);
+                    for (int k = 1; k < degree; k++) {
+                        result.append('*');
+                        linear(result, depth);
+                        result.append(')');
+                    }
+                    firstMap = false;
+                } else {
+                    linear(result, depth);
+                }
+            }
+            result.append('}');
+        }
+        return result.toString();
+    }
+
+    private void linear(StringBuilder result, int depth) {
+        if (depth == 0) {
+            if (random.nextBoolean()) {
+                result.append("element");
+            } else {
+                result.append(random.nextInt(21) - 10);
+            }
+            return;
+        }
+        result.append('(');
+        linear(result, depth - 1);
+        result.append(random.nextBoolean() ? '+' : '-');
+        linear(result, depth - 1);
+        result.append(')');
+    }
+
+    private void logical(StringBuilder result, int depth) {
+        result.append('(');
+        if (depth <= 1) {
+            linear(result, 1);
+            result.append(COMPARISONS[random.nextInt(COMPARISONS.length)]);
+            result.append(random.nextInt(201) - 100);
+        } else {
+            logical(result, depth - 1);
+            result.append(random.nextBoolean() ? '&' : '|');
+            logical(result, depth - 1);
+        }
+        result.append(')');
+    }
+}
@@ -0,0 +1,211 @@
+package benchmarks;
+
+import callchain.converter.ChainConverter;
+import callchain.converter.LogicBackend;
+import callchain.parser.Call;
+import callchain.parser.CallChainParser;
+import callchain.parser.CallType;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import expressions.parser.ExpressionParser;
+import expressions.polynomial.Polynomial;
+import expressions.types.ArithmeticExpression;
+import expressions.types.Expression;
+import expressions.types.LogicalExpression;
+import expressions.types.operations.And;
+import expressions.types.primitives.Bool;
+import expressions.types.primitives.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures conversion of generated chains as a whole and by phases: splitting the chain into calls,
+ * parsing expressions of calls, substitution of composed maps into filters, simplification of the resulting
+ * filter and rendering of the converted chain.
+ * <p>
+ * Nodes are interned and remember their polynomials, so benchmarks of the whole conversion and of simplification
+ * get a chain of a new salt for every invocation, see {@link ChainGenerator}. Chains of both benchmarks are
+ * generated before every iteration from disjoint salts, and the iteration is a single shot of exactly
+ * {@value #BATCH_SIZE} invocations, each taking the next chain of the batch. The time of the batch is reported
+ * per chain.
+ * Other phases are measured on the same chain, as repeated parsing and substitution only look up interned nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConversionBenchmark {
+
+    private static final long SEED = 42;
+
+    /**
+     * Number of invocations of benchmarks of fresh chains in one iteration.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Number of calls of the chain.
+     */
+    @Param({"8", "32"})
+    public int chainLength;
+
+    /**
+     * Nesting depth of expressions of calls.
+     */
+    @Param({"1", "3"})
+    public int depth;
+
+    /**
+     * Degree of the converted map.
+     */
+    @Param({"1", "4"})
+    public int degree;
+
+    /**
+     * Share of filters among calls.
+     */
+    @Param({"0.25", "0.75"})
+    public double filterShare;
+
+    private String chain;
+    private String[] expressions;
+    private List<Expression> filters;
+    private List<ArithmeticExpression> maps;
+    private Call filterCall;
+    private Call mapCall;
+
+    /**
+     * Odd salts are used by {@link #convert()}, even ones by {@link #simplify()}.
+     */
+    private int convertSalt = -1;
+    private int simplifySalt;
+
+    private final String[] saltedChains = new String[BATCH_SIZE];
+    private final LogicalExpression[] saltedFilters = new LogicalExpression[BATCH_SIZE];
+    private int nextChain;
+    private int nextFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InvalidSyntaxException, InvalidTypeException {
+        chain = ChainGenerator.generate(SEED, chainLength, depth, degree, filterShare, 0);
+        List<String> parsedExpressions = new ArrayList<>();
+        filters = new ArrayList<>();
+        maps = new ArrayList<>();
+        Polynomial map = Polynomial.monomial(1, 1);
+        for (Call call : calls(chain)) {
+            String expression = call.getExpression().toString();
+            parsedExpressions.add(expression);
+            if (call.getCallType() == CallType.FILTER) {
+                filters.add(call.getExpression());
+                maps.add(map.toExpression());
+            } else {
+                map = ((ArithmeticExpression) call.getExpression()).toPolynomial().compose(map);
+            }
+        }
+        expressions = parsedExpressions.toArray(new String[0]);
+        LogicalExpression filter = ChainConverter.convert(chain).getFilter();
+        filterCall = new Call(CallType.FILTER, filter);
+        mapCall = new Call(CallType.MAP, filter instanceof Bool && !((Bool) filter).isTrue() ? Element.of() : map.toExpression());
+    }
+
+    /**
+     * Generates chains of the next salts for {@link #convert()}, they are not parsed until they are converted,
+     * and filters with substituted maps of other chains for {@link #simplify()}.
+     */
+    @Setup(Level.Iteration)
+    public void setUpIteration() throws InvalidSyntaxException, InvalidTypeException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            convertSalt += 2;
+            saltedChains[i] = ChainGenerator.generate(SEED, chainLength, depth, degree, filterShare, convertSalt);
+        }
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            simplifySalt += 2;
+            String saltedChain = ChainGenerator.generate(SEED, chainLength, depth, degree, filterShare, simplifySalt);
+            Polynomial map = Polynomial.monomial(1, 1);
+            LogicalExpression filter = Bool.of(true);
+            for (Call call : calls(saltedChain)) {
+                if (call.getCallType() == CallType.FILTER) {
+                    filter = And.of(filter, (LogicalExpression) ChainConverter.replaceElement(call.getExpression(), map.toExpression()));
+                } else {
+                    map = ((ArithmeticExpression) call.getExpression()).toPolynomial().compose(map);
+                }
+            }
+            saltedFilters[i] = filter;
+        }
+        nextChain = 0;
+        nextFilter = 0;
+    }
+
+    private static List<Call> calls(String chain) throws InvalidSyntaxException, InvalidTypeException {
+        CallChainParser parser = new CallChainParser(chain);
+        List<Call> calls = new ArrayList<>();
+        while (parser.hasNextCall()) {
+            calls.add(parser.getCall());
+        }
+        return calls;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public String convert() throws InvalidSyntaxException, InvalidTypeException {
+        return ChainConverter.convert(saltedChains[nextChain++ % BATCH_SIZE]).toString();
+    }
+
+    @Benchmark
+    public void getCall(Blackhole blackhole) throws InvalidSyntaxException, InvalidTypeException {
+        CallChainParser parser = new CallChainParser(chain);
+        while (parser.hasNextCall()) {
+            blackhole.consume(parser.getCall());
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws InvalidSyntaxException, InvalidTypeException {
+        ExpressionParser parser = new ExpressionParser();
+        for (String expression : expressions) {
+            blackhole.consume(parser.parse(expression));
+        }
+    }
+
+    @Benchmark
+    public void replaceElement(Blackhole blackhole) {
+        for (int i = 0; i < filters.size(); i++) {
+            blackhole.consume(ChainConverter.replaceElement(filters.get(i), maps.get(i)));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public LogicalExpression simplify() {
+        return LogicBackend.REWRITING.simplify(saltedFilters[nextFilter++ % BATCH_SIZE]);
+    }
+
+    @Benchmark
+    public String joinCalls() {
+        return CallChainParser.joinCalls(filterCall, mapCall);
+    }
+}
@@ -0,0 +1,133 @@
+package benchmarks;
+
+import callchain.converter.ChainConverter;
+import callchain.converter.ConvertedChain;
+import callchain.executor.ArrayExecutor;
+import callchain.executor.ChainCompiler;
+import callchain.executor.ChainExecutor;
+import callchain.executor.CompiledChain;
+import callchain.executor.StagedChainExecutor;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares execution of the original chain call by call with execution of its converted form on the same input.
+ * Scores are times of processing the whole input, {@link BenchmarkRunner} prints them per element with speedups
+ * of converted executors over {@link #staged()}. Conversion itself is measured by {@link ConversionBenchmark},
+ * it pays off once the number of processed elements exceeds its time divided by the difference of times per element.
+ * {@link BenchmarkRunner} adds the Vector API module to forks on JDK 17+, otherwise {@link #vectorized()}
+ * falls back to the scalar executor.
+ * <p>
+ * Input values are uniform in {@code [0, 1000)}, and the selective filter of every shape keeps
+ * the {@code selectivity} share of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionBenchmark {
+
+    private static final int VALUES = 1000;
+
+    /**
+     * Chains with placeholder {@code T} for the threshold of the selective filter applied to input values.
+     */
+    private static final String[][] SHAPES = {
+            {"filterMap", "filter{(element<T)}%>%map{(element*3)}"},
+            {"mapsAndFilters", "map{(element+1)}%>%filter{(element<(T+1))}%>%map{(element*2)}"
+                    + "%>%filter{(element>-1)}%>%map{(element-5)}%>%map{((element*element)+1)}"},
+            {"manyFilters", "filter{(element>-1)}%>%filter{(element<2000)}%>%filter{((element>-5)|(element=7))}"
+                    + "%>%map{(element+0)}%>%filter{(element<T)}%>%filter{(element<3000)}%>%filter{(element>-100)}"
+                    + "%>%filter{((element<5000)&(element>-50))}%>%map{(element*element)}"},
+    };
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    @Param({"0.1", "0.5", "0.9"})
+    public double selectivity;
+
+    @Param({"filterMap", "mapsAndFilters", "manyFilters"})
+    public String shape;
+
+    private int[] input;
+    private int[] output;
+    private StagedChainExecutor stagedExecutor;
+    private ChainExecutor convertedExecutor;
+    private CompiledChain compiledChain;
+    private ArrayExecutor vectorExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InvalidSyntaxException, InvalidTypeException {
+        String callChain = null;
+        for (String[] entry : SHAPES) {
+            if (entry[0].equals(shape)) {
+                callChain = entry[1].replace("T", String.valueOf(Math.round(selectivity * VALUES)));
+            }
+        }
+        if (callChain == null) {
+            throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+        Random random = new Random(42);
+        input = new int[size];
+        for (int i = 0; i < size; i++) {
+            input[i] = random.nextInt(VALUES);
+        }
+        output = new int[size];
+
+        ConvertedChain chain = ChainConverter.convert(callChain);
+        stagedExecutor = StagedChainExecutor.compile(callChain);
+        convertedExecutor = new ChainExecutor(chain);
+        compiledChain = new ChainCompiler(1).compile(chain);
+        vectorExecutor = ChainExecutor.vectorized(chain);
+
+        int[] expected = Arrays.copyOf(output, stagedExecutor.execute(input, output));
+        check("converted", expected, convertedExecutor.execute(input, output));
+        check("compiled", expected, compiledChain.process(input, output));
+        check("vectorized", expected, vectorExecutor.execute(input, output));
+    }
+
+    private void check(String executor, int[] expected, int size) {
+        if (!Arrays.equals(expected, Arrays.copyOf(output, size))) {
+            throw new IllegalStateException("Output of " + executor + " execution of " + shape + " differs from the original");
+        }
+    }
+
+    @Benchmark
+    public int staged() {
+        return stagedExecutor.execute(input, output);
+    }
+
+    @Benchmark
+    public int converted() {
+        return convertedExecutor.execute(input, output);
+    }
+
+    @Benchmark
+    public int compiled() {
+        return compiledChain.process(input, output);
+    }
+
+    @Benchmark
+    public int vectorized() {
+        return vectorExecutor.execute(input, output);
+    }
+}
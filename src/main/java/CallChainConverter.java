@@ -1,39 +1,182 @@
-import callchain.parser.Call;
-import callchain.parser.CallChainParser;
-import callchain.parser.CallType;
+import callchain.cache.ConversionCache;
+import callchain.cache.PrefixCache;
+import callchain.converter.BatchConverter;
+import callchain.converter.CancellationToken;
+import callchain.converter.ChainConverter;
+import callchain.converter.ConversionBudget;
+import callchain.converter.ConversionResult;
+import callchain.converter.ConvertedChain;
+import callchain.converter.Converter;
+import callchain.converter.LogicBackend;
+import callchain.converter.OutputForm;
+import callchain.executor.FileChainExecutor;
+import callchain.executor.PipelinedChainExecutor;
+import callchain.metrics.ConversionMetrics;
+import callchain.metrics.ConversionStatistics;
+import callchain.server.ConversionServer;
+import exceptions.BudgetExceededException;
 import exceptions.InvalidSyntaxException;
 import exceptions.InvalidTypeException;
-import expressions.types.ArithmeticExpression;
-import expressions.types.Expression;
-import expressions.types.LogicalExpression;
-import expressions.types.operations.And;
-import expressions.types.primitives.Bool;
-import expressions.types.primitives.Element;
-import expressions.types.operations.BinaryOperation;
+import expressions.types.Budget;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class to convert <call-chain> into the equivalent simplified form <filter-call> “%>%” <map-call>
  */
 public class CallChainConverter {
 
+    private static final String BATCH_OPTION = "--batch";
+    private static final String CACHE_OPTION = "--cache";
+    private static final String PREFIX_CACHE_OPTION = "--prefix-cache";
+    private static final String LOGIC_OPTION = "--logic";
+    private static final String INPUT_OPTION = "--input";
+    private static final String OUTPUT_OPTION = "--output";
+    private static final String EXECUTE_OPTION = "--execute";
+    private static final String METRICS_OPTION = "--metrics";
+    private static final String SERVER_OPTION = "--server";
+    private static final String CONCURRENCY_OPTION = "--concurrency";
+    private static final String MAX_NODES_OPTION = "--max-nodes";
+    private static final String MAX_DEGREE_OPTION = "--max-degree";
+    private static final String TIMEOUT_OPTION = "--timeout";
+    private static final String FORM_OPTION = "--form";
+
+    /**
+     * Reads chains from the standard input line by line and prints converted chains.
+     * Supported options:
+     * <ul>
+     * <li>{@code --batch} converts lines in parallel keeping the input order;</li>
+     * <li>{@code --cache <size>} memoizes up to {@code size} conversion results;</li>
+     * <li>{@code --prefix-cache <size>} keeps states of conversion after up to {@code size} prefixes of chains,
+     * so chains resume from their longest converted prefix;</li>
+     * <li>{@code --logic <rewriting|bdd>} selects {@link LogicBackend} simplifying filters;</li>
+     * <li>{@code --input <file> --output <file>} converts the chain from the first line and executes it on
+     * little-endian {@code int} values of the input file writing results to the output file;</li>
+     * <li>{@code --execute <call-chain>} executes the chain on little-endian {@code int} values of the standard input
+     * writing results to the standard output, and prints statistics of the pipeline to the standard error;</li>
+     * <li>{@code --metrics} measures phases of conversions, exposes {@link ConversionStatistics} through JMX
+     * and emits JFR events on JDK 17+;</li>
+     * <li>{@code --server <port|path>} serves conversions on the loopback TCP port or on the Unix domain socket
+     * instead of reading the standard input, see {@link ConversionServer};</li>
+     * <li>{@code --concurrency <n>} limits the number of conversions the server runs at once;</li>
+     * <li>{@code --max-nodes <n>}, {@code --max-degree <n>} and {@code --timeout <ms>} limit every conversion
+     * with {@link ConversionBudget}, chains exceeding it are reported as 'BUDGET ERROR', executed chains included;</li>
+     * <li>{@code --form <expanded|horner|auto>} selects {@link OutputForm} of polynomials of printed results,
+     * it can not be used with {@code --execute}, which prints no chain.</li>
+     * </ul>
+     */
     public static void main(String[] args) throws IOException {
+        boolean batch = false;
+        int cacheSize = 0;
+        int prefixCacheSize = 0;
+        LogicBackend backend = LogicBackend.REWRITING;
+        Path input = null;
+        Path output = null;
+        String executed = null;
+        String server = null;
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        ConversionBudget budget = ConversionBudget.UNLIMITED;
+        OutputForm form = OutputForm.EXPANDED;
+        for (int i = 0; i < args.length; i++) {
+            if (BATCH_OPTION.equals(args[i])) {
+                batch = true;
+            } else if (METRICS_OPTION.equals(args[i])) {
+                ConversionStatistics.register();
+                ConversionMetrics.enableFlightRecorder();
+            } else if (CACHE_OPTION.equals(args[i]) && i + 1 < args.length) {
+                cacheSize = Integer.parseInt(args[++i]);
+            } else if (PREFIX_CACHE_OPTION.equals(args[i]) && i + 1 < args.length) {
+                prefixCacheSize = Integer.parseInt(args[++i]);
+            } else if (LOGIC_OPTION.equals(args[i]) && i + 1 < args.length) {
+                backend = LogicBackend.valueOf(args[++i].toUpperCase());
+            } else if (INPUT_OPTION.equals(args[i]) && i + 1 < args.length) {
+                input = Paths.get(args[++i]);
+            } else if (OUTPUT_OPTION.equals(args[i]) && i + 1 < args.length) {
+                output = Paths.get(args[++i]);
+            } else if (EXECUTE_OPTION.equals(args[i]) && i + 1 < args.length) {
+                executed = args[++i];
+            } else if (SERVER_OPTION.equals(args[i]) && i + 1 < args.length) {
+                server = args[++i];
+            } else if (CONCURRENCY_OPTION.equals(args[i]) && i + 1 < args.length) {
+                concurrency = Integer.parseInt(args[++i]);
+            } else if (MAX_NODES_OPTION.equals(args[i]) && i + 1 < args.length) {
+                budget = budget.withMaxNodes(Long.parseLong(args[++i]));
+            } else if (MAX_DEGREE_OPTION.equals(args[i]) && i + 1 < args.length) {
+                budget = budget.withMaxDegree(Long.parseLong(args[++i]));
+            } else if (TIMEOUT_OPTION.equals(args[i]) && i + 1 < args.length) {
+                budget = budget.withTimeout(Long.parseLong(args[++i]), TimeUnit.MILLISECONDS);
+            } else if (FORM_OPTION.equals(args[i]) && i + 1 < args.length) {
+                form = OutputForm.valueOf(args[++i].toUpperCase());
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        LogicBackend logicBackend = backend;
+        OutputForm outputForm = form;
+        Converter converter = prefixCacheSize > 0
+                ? new PrefixCache(backend, form, prefixCacheSize)
+                : callChain -> ChainConverter.convertToString(callChain, logicBackend, outputForm);
+        if (budget != ConversionBudget.UNLIMITED) {
+            converter = budget.limit(converter);
+        }
+        if (cacheSize > 0) {
+            converter = new ConversionCache(converter, cacheSize);
+        }
+
+        if (server != null) {
+            serve(server, converter, concurrency);
+            return;
+        }
+        if (executed != null) {
+            if (form != OutputForm.EXPANDED) {
+                throw new IllegalArgumentException("Option " + FORM_OPTION + " can not be used with " + EXECUTE_OPTION);
+            }
+            executeStream(executed, backend, budget);
+            return;
+        }
         BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        if (input != null || output != null) {
+            if (input == null || output == null) {
+                throw new IllegalArgumentException("Options " + INPUT_OPTION + " and " + OUTPUT_OPTION + " must be used together");
+            }
+            String line = reader.readLine();
+            if (line != null) {
+                executeFile(line, backend, budget, form, input, output);
+            }
+            return;
+        }
+        if (batch) {
+            try (BatchConverter batchConverter = new BatchConverter(converter)) {
+                batchConverter.convertAll(reader, new OutputStreamWriter(System.out));
+            }
+            return;
+        }
         String line;
         while ((line = reader.readLine()) != null) {
-            try {
-                System.out.println(convert(line));
-            } catch (InvalidSyntaxException e) {
-                System.out.println("SYSTEM ERROR: " + e.getMessage());
-            } catch (InvalidTypeException e) {
-                System.out.println("TYPE ERROR: " + e.getMessage());
-            }
+            System.out.println(BatchConverter.convertLine(converter, line));
         }
     }
 
+    /**
+     * Converts every chain from {@code callChains} in parallel using all available processors.
+     *
+     * @param callChains {@link List} of chains to convert
+     * @return {@link List} of converted chains in the same order as {@code callChains}.
+     * Chains that can not be converted are replaced with 'SYSTEM ERROR' or 'TYPE ERROR' messages.
+     */
+    public static List<String> convertAll(List<String> callChains) {
+        return SharedBatchConverter.INSTANCE.convertAll(callChains);
+    }
+
 
     /**
      * Converts input {@link String} {@code callChain} representing any sequence of <filter-call> and <map-call>
@@ -46,45 +189,105 @@ public class CallChainConverter {
      *                                can not be inferred because of wrong typifying in expression
      */
     public static String convert(String callChain) throws InvalidSyntaxException, InvalidTypeException {
-        CallChainParser parser = new CallChainParser(callChain);
+        return convert(callChain, LogicBackend.REWRITING);
+    }
 
-        ArithmeticExpression curMapElement = new Element();
-        LogicalExpression curFilterExpr = new Bool(true);
+    /**
+     * Converts {@code callChain} like {@link #convert(String)} simplifying the resulting filter with {@code backend}.
+     *
+     * @param callChain {@link String} representing <call-chain> to convert
+     * @param backend   {@link LogicBackend} simplifying the resulting filter
+     * @return {@link String} representing equivalent simplified chain in specified format
+     * @throws InvalidSyntaxException if {@code callChain} is in invalid format
+     * @throws InvalidTypeException   if there is call with wrong argument type or argument type
+     *                                can not be inferred because of wrong typifying in expression
+     */
+    public static String convert(String callChain, LogicBackend backend) throws InvalidSyntaxException, InvalidTypeException {
+        return ChainConverter.convertToString(callChain, backend);
+    }
 
-        while (parser.hasNextCall()) {
-            Call call = parser.getCall();
-            Expression expr = replaceElement(call.getExpression(), curMapElement);
-            switch (call.getCallType()) {
-                case FILTER: {
-                    curFilterExpr = new And(curFilterExpr, (LogicalExpression) expr);
-                    break;
-                }
-                case MAP: {
-                    curMapElement = (ArithmeticExpression) expr;
-                    break;
-                }
-            }
-        }
-        Expression resultFilterExpr = curFilterExpr.simplify();
-        Expression resultMapExpr = new Element();
+    /**
+     * Converts {@code callChain} like {@link #convert(String)} returning errors instead of throwing them,
+     * errors are stackless and their messages are formatted only when they are requested.
+     *
+     * @param callChain {@link String} representing <call-chain> to convert
+     * @return {@link ConversionResult} with equivalent simplified chain or with the error
+     */
+    public static ConversionResult tryConvert(String callChain) {
+        return ChainConverter.tryConvert(callChain, LogicBackend.REWRITING);
+    }
 
-        if (!(resultFilterExpr instanceof Bool) || ((Bool) resultFilterExpr).isTrue()) {
-            resultMapExpr = curMapElement.simplify();
+    /**
+     * Prints the converted chain in {@code form} or the error message, and executes the chain on values of {@code input}.
+     */
+    private static void executeFile(String callChain, LogicBackend backend, ConversionBudget budget, OutputForm form,
+                                    Path input, Path output) throws IOException {
+        ConvertedChain chain = convertWithin(callChain, backend, budget, System.out);
+        if (chain == null) {
+            return;
         }
+        System.out.println(form.apply(chain));
+        new FileChainExecutor(chain).execute(input, output);
+    }
 
-        return CallChainParser.joinCalls(new Call(CallType.FILTER, resultFilterExpr), new Call(CallType.MAP, resultMapExpr));
+    /**
+     * Executes the chain on the standard input, conversion errors are printed to the standard error.
+     */
+    private static void executeStream(String callChain, LogicBackend backend, ConversionBudget budget) throws IOException {
+        ConvertedChain chain = convertWithin(callChain, backend, budget, System.err);
+        if (chain == null) {
+            return;
+        }
+        System.err.println(new PipelinedChainExecutor(chain)
+                .execute(Channels.newChannel(System.in), Channels.newChannel(System.out)));
+        System.out.flush();
     }
 
-    private static Expression replaceElement(Expression expression, ArithmeticExpression curElement) {
-        if (expression instanceof Element) {
-            return curElement;
+    /**
+     * Converts {@code callChain} within {@code budget} printing the error message to {@code errors} if it fails.
+     *
+     * @return converted chain or {@code null} if the conversion failed
+     */
+    private static ConvertedChain convertWithin(String callChain, LogicBackend backend, ConversionBudget budget,
+                                                PrintStream errors) {
+        try {
+            Budget scope = budget.enter(new CancellationToken());
+            try {
+                return ChainConverter.convert(callChain, backend);
+            } finally {
+                scope.close();
+            }
+        } catch (InvalidSyntaxException | InvalidTypeException e) {
+            errors.println(BatchConverter.format(ConversionResult.failure(e)));
+        } catch (BudgetExceededException e) {
+            errors.println(BatchConverter.format(ConversionResult.failure(e)));
         }
-        if (expression instanceof BinaryOperation) {
-            BinaryOperation operation = (BinaryOperation) expression;
-            operation.setLeft(replaceElement(operation.getLeft(), curElement));
-            operation.setRight(replaceElement(operation.getRight(), curElement));
-            return operation;
+        return null;
+    }
+
+    /**
+     * Serves conversions until the process is terminated, {@code address} is a port number or a socket path.
+     */
+    private static void serve(String address, Converter converter, int concurrency) throws IOException {
+        ConversionServer server = address.chars().allMatch(Character::isDigit)
+                ? ConversionServer.bind(Integer.parseInt(address), converter, concurrency)
+                : ConversionServer.bind(Paths.get(address), converter, concurrency);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException ignored) {
+                // the process is terminating anyway
+            }
+        }));
+        System.err.println("Listening on " + server.getLocalAddress());
+        try {
+            server.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return expression;
+    }
+
+    private static class SharedBatchConverter {
+        private static final BatchConverter INSTANCE = new BatchConverter(CallChainConverter::convert);
     }
 }
@@ -0,0 +1,146 @@
+package callchain.cache;
+
+import callchain.converter.ConversionResult;
+import callchain.converter.Converter;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe bounded cache of conversion results placed in front of another {@link Converter}.
+ * Both converted chains and syntax or type errors are memoized, keyed by the raw chain string.
+ * <p>
+ * Entries are spread over independent segments by key hash, every segment is guarded by its own lock
+ * and evicts its least recently used entry when full. Capacities of segments sum up to the maximum size. Conversions themselves run outside of any lock.
+ */
+public class ConversionCache implements Converter {
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+
+    private final Converter converter;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ConversionCache(Converter converter, int maximumSize) {
+        this(converter, maximumSize, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public ConversionCache(Converter converter, int maximumSize, int concurrencyLevel) {
+        if (maximumSize < 1 || concurrencyLevel < 1) {
+            throw new IllegalArgumentException("Maximum size and concurrency level must be positive");
+        }
+        int segmentsNumber = 1;
+        while (segmentsNumber <= concurrencyLevel / 2 && segmentsNumber <= maximumSize / 2) {
+            segmentsNumber <<= 1;
+        }
+        this.converter = converter;
+        segments = new Segment[segmentsNumber];
+        segmentMask = segmentsNumber - 1;
+        // capacities sum up to maximumSize exactly, the first segments take the remainder
+        for (int i = 0; i < segmentsNumber; i++) {
+            segments[i] = new Segment(maximumSize / segmentsNumber + (i < maximumSize % segmentsNumber ? 1 : 0));
+        }
+    }
+
+    @Override
+    public String convert(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        return tryConvert(callChain).get();
+    }
+
+    /**
+     * Returns the memoized {@link ConversionResult}, errors are shared by all hits, since they are stackless.
+     * Exceeded budgets depend on the load and are not memoized.
+     */
+    @Override
+    public ConversionResult tryConvert(String callChain) {
+        Segment segment = segmentFor(callChain);
+        ConversionResult result = segment.get(callChain);
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+        misses.increment();
+        result = converter.tryConvert(callChain);
+        if (result.getErrorKind() != ConversionResult.ErrorKind.BUDGET) {
+            segment.put(callChain, result);
+        }
+        return result;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return current number of cached results
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Removes all cached results. Counters are not reset.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+
+    private class Segment {
+        private final LinkedHashMap<String, ConversionResult> entries;
+
+        Segment(int capacity) {
+            entries = new LinkedHashMap<String, ConversionResult>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ConversionResult> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized ConversionResult get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, ConversionResult result) {
+            entries.put(key, result);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+    }
+}
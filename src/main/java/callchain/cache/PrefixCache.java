@@ -0,0 +1,259 @@
+package callchain.cache;
+
+import callchain.converter.ChainAccumulator;
+import callchain.converter.ConvertedChain;
+import callchain.converter.Converter;
+import callchain.converter.LogicBackend;
+import callchain.converter.OutputForm;
+import callchain.metrics.ConversionRecorder;
+import callchain.metrics.Phase;
+import callchain.parser.Call;
+import callchain.parser.CallChainParser;
+import callchain.parser.CallType;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import expressions.types.Expression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe {@link Converter} caching intermediate states of conversion after every prefix of calls.
+ * States are stored in a trie over parsed calls, and a chain is converted by resuming {@link ChainAccumulator}
+ * from its longest cached prefix, so chains sharing long prefixes pay only for their own suffixes.
+ * <p>
+ * The number of trie nodes is bounded. Every lookup touches its node and then its ancestors, so a node is never
+ * used more recently than its parent, and the least recently used node is always a leaf: cold branches
+ * are evicted from their ends. The trie is guarded by the lock of the cache, conversions run outside of it.
+ * Syntax and type errors are not cached. Conversions are measured with {@link ConversionRecorder}
+ * like the ones of {@link callchain.converter.ChainConverter}, resumed calls take no time of their phases.
+ */
+public class PrefixCache implements Converter {
+
+    private final LogicBackend backend;
+    private final OutputForm form;
+    private final int maximumSize;
+    private final Node root;
+
+    /**
+     * All nodes except the root in order of access, guarded by {@code this}.
+     */
+    private final LinkedHashMap<Node, Node> recency = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder fullHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder hitCalls = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PrefixCache(int maximumSize) {
+        this(LogicBackend.REWRITING, maximumSize);
+    }
+
+    /**
+     * @param backend     {@link LogicBackend} simplifying filters
+     * @param maximumSize maximum number of cached prefixes
+     */
+    public PrefixCache(LogicBackend backend, int maximumSize) {
+        this(backend, OutputForm.EXPANDED, maximumSize);
+    }
+
+    /**
+     * @param backend     {@link LogicBackend} simplifying filters
+     * @param form        {@link OutputForm} of polynomials of results
+     * @param maximumSize maximum number of cached prefixes
+     */
+    public PrefixCache(LogicBackend backend, OutputForm form, int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.backend = backend;
+        this.form = form;
+        this.maximumSize = maximumSize;
+        root = new Node(null, null, new ChainAccumulator(backend));
+    }
+
+    @Override
+    public String convert(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        ConversionRecorder recorder = ConversionRecorder.start(callChain.length());
+        try {
+            String result = convert(callChain, recorder);
+            recorder.finish();
+            return result;
+        } catch (InvalidSyntaxException | InvalidTypeException | RuntimeException e) {
+            recorder.fail(e);
+            throw e;
+        }
+    }
+
+    private String convert(String callChain, ConversionRecorder recorder) throws InvalidSyntaxException, InvalidTypeException {
+        CallChainParser parser = new CallChainParser(callChain);
+        List<CallKey> calls = new ArrayList<>();
+        while (parser.hasNextCall()) {
+            Call call = parser.getCall();
+            recorder.countInput(call.getExpression());
+            calls.add(new CallKey(call));
+        }
+
+        ChainAccumulator state;
+        int depth = 0;
+        synchronized (this) {
+            Node node = root;
+            Node child;
+            while (depth < calls.size() && (child = node.children.get(calls.get(depth))) != null) {
+                node = child;
+                depth++;
+            }
+            touch(node);
+            state = node.state.snapshot();
+        }
+        lookups.increment();
+        hitCalls.add(depth);
+        if (depth == 0) {
+            misses.increment();
+        } else if (depth == calls.size()) {
+            fullHits.increment();
+        }
+
+        if (depth < calls.size()) {
+            ChainAccumulator[] states = new ChainAccumulator[calls.size() - depth];
+            for (int i = depth; i < calls.size(); i++) {
+                state.append(calls.get(i).call, recorder);
+                states[i - depth] = state.snapshot();
+            }
+            insert(calls, depth, states);
+        }
+        recorder.enter(Phase.ARITHMETIC);
+        ConvertedChain chain = state.getResult();
+        recorder.countOutput(chain.getFilter(), chain.getMap());
+        recorder.enter(Phase.RENDER);
+        String result = form.apply(chain).toString();
+        recorder.rendered(result.length());
+        return result;
+    }
+
+    /**
+     * Adds nodes of calls from {@code from} with their states. Nodes of the prefix evicted in the meantime
+     * can not be restored, so insertion stops at the first of them.
+     */
+    private synchronized void insert(List<CallKey> calls, int from, ChainAccumulator[] states) {
+        Node node = root;
+        for (int i = 0; i < calls.size(); i++) {
+            Node child = node.children.get(calls.get(i));
+            if (child == null) {
+                if (i < from) {
+                    break;
+                }
+                child = new Node(node, calls.get(i), states[i - from]);
+                node.children.put(calls.get(i), child);
+            }
+            node = child;
+        }
+        touch(node);
+        Iterator<Node> eldest = recency.keySet().iterator();
+        while (recency.size() > maximumSize) {
+            Node leaf = eldest.next();
+            eldest.remove();
+            leaf.parent.children.remove(leaf.key);
+            evictions.increment();
+        }
+    }
+
+    private void touch(Node node) {
+        for (Node current = node; current != root; current = current.parent) {
+            recency.put(current, current);
+        }
+    }
+
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    /**
+     * @return number of chains whose all calls were cached
+     */
+    public long getFullHitCount() {
+        return fullHits.sum();
+    }
+
+    /**
+     * @return number of chains converted from the beginning
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return mean number of calls resumed from the cache per chain
+     */
+    public double getMeanHitDepth() {
+        long count = lookups.sum();
+        return count == 0 ? 0 : (double) hitCalls.sum() / count;
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return current number of cached prefixes
+     */
+    public synchronized int size() {
+        return recency.size();
+    }
+
+    /**
+     * Removes all cached prefixes. Counters are not reset.
+     */
+    public synchronized void clear() {
+        root.children.clear();
+        recency.clear();
+    }
+
+    public LogicBackend getBackend() {
+        return backend;
+    }
+
+    private static class Node {
+        final Node parent;
+        final CallKey key;
+        final ChainAccumulator state;
+        final Map<CallKey, Node> children = new HashMap<>();
+
+        Node(Node parent, CallKey key, ChainAccumulator state) {
+            this.parent = parent;
+            this.key = key;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Parsed call compared by type and structure of expression.
+     */
+    private static class CallKey {
+        final Call call;
+
+        CallKey(Call call) {
+            this.call = call;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CallKey that = (CallKey) o;
+            return call.getCallType() == that.call.getCallType() && call.getExpression().equals(that.call.getExpression());
+        }
+
+        @Override
+        public int hashCode() {
+            Expression expression = call.getExpression();
+            return 31 * expression.hashCode() + (call.getCallType() == CallType.FILTER ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package callchain.converter;
+
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Converts many call chains at once on a pool of worker threads.
+ * Input lines are split into chunks, chunks are converted in parallel and the results are emitted
+ * in the input order. At most {@code maxPendingChunks} chunks are in flight, so the reorder buffer is bounded.
+ */
+public class BatchConverter implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 256;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private static final String SYNTAX_ERROR_PREFIX = "SYSTEM ERROR: ";
+    private static final String TYPE_ERROR_PREFIX = "TYPE ERROR: ";
+    private static final String BUDGET_ERROR_PREFIX = "BUDGET ERROR: ";
+
+    private final Converter converter;
+    private final ExecutorService workers;
+    private final int maxPendingChunks;
+
+    public BatchConverter(Converter converter) {
+        this(converter, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchConverter(Converter converter, int threads) {
+        this(converter, threads, 4 * threads);
+    }
+
+    public BatchConverter(Converter converter, int threads, int maxPendingChunks) {
+        if (threads < 1 || maxPendingChunks < 1) {
+            throw new IllegalArgumentException("Number of threads and pending chunks must be positive");
+        }
+        this.converter = converter;
+        this.maxPendingChunks = maxPendingChunks;
+        workers = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+    }
+
+    /**
+     * Converts single line and formats the result in the same way as for batch output.
+     *
+     * @param converter {@link Converter} to apply
+     * @param callChain {@link String} representing <call-chain> to convert
+     * @return converted chain or error message
+     */
+    public static String convertLine(Converter converter, String callChain) {
+        return format(converter.tryConvert(callChain));
+    }
+
+    /**
+     * Formats the result of a conversion in the same way as for batch output.
+     *
+     * @param result {@link ConversionResult} to format
+     * @return converted chain or error message
+     */
+    public static String format(ConversionResult result) {
+        if (result.isSuccess()) {
+            return result.getValue();
+        }
+        switch (result.getErrorKind()) {
+            case SYNTAX:
+                return SYNTAX_ERROR_PREFIX + result.getErrorMessage();
+            case TYPE:
+                return TYPE_ERROR_PREFIX + result.getErrorMessage();
+            default:
+                return BUDGET_ERROR_PREFIX + result.getErrorMessage();
+        }
+    }
+
+    /**
+     * Converts every chain from {@code callChains}.
+     *
+     * @param callChains {@link List} of chains to convert
+     * @return {@link List} of converted chains or error messages in the same order as {@code callChains}
+     */
+    public List<String> convertAll(List<String> callChains) {
+        List<String> result = new ArrayList<>(callChains.size());
+        int[] position = {0};
+        try {
+            process(() -> {
+                int from = position[0];
+                if (from == callChains.size()) {
+                    return null;
+                }
+                position[0] = Math.min(from + CHUNK_SIZE, callChains.size());
+                return callChains.subList(from, position[0]).toArray(new String[0]);
+            }, chunk -> result.addAll(Arrays.asList(chunk)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Converts every line of {@code reader} and writes results line by line to {@code writer}.
+     * Output is buffered and flushed once all lines are processed.
+     *
+     * @param reader source of chains, one per line
+     * @param writer destination of converted chains
+     * @throws IOException if reading or writing failed
+     */
+    public void convertAll(BufferedReader reader, Writer writer) throws IOException {
+        BufferedWriter out = new BufferedWriter(writer, OUTPUT_BUFFER_SIZE);
+        process(() -> {
+            String[] chunk = new String[CHUNK_SIZE];
+            int size = 0;
+            String line;
+            while (size < CHUNK_SIZE && (line = reader.readLine()) != null) {
+                chunk[size++] = line;
+            }
+            if (size == 0) {
+                return null;
+            }
+            return size == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, size);
+        }, chunk -> {
+            for (String line : chunk) {
+                out.write(line);
+                out.newLine();
+            }
+        });
+        out.flush();
+    }
+
+    private void process(ChunkSource source, ChunkSink sink) throws IOException {
+        Deque<Future<String[]>> pending = new ArrayDeque<>();
+        try {
+            String[] chunk;
+            while ((chunk = source.next()) != null) {
+                if (pending.size() == maxPendingChunks) {
+                    sink.accept(await(pending.poll()));
+                }
+                String[] lines = chunk;
+                pending.add(workers.submit(() -> convertChunk(lines)));
+            }
+            while (!pending.isEmpty()) {
+                sink.accept(await(pending.poll()));
+            }
+        } finally {
+            for (Future<String[]> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private String[] convertChunk(String[] lines) {
+        String[] result = new String[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            result[i] = convertLine(converter, lines[i]);
+        }
+        return result;
+    }
+
+    private static String[] await(Future<String[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch conversion was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+
+    private interface ChunkSource {
+        String[] next() throws IOException;
+    }
+
+    private interface ChunkSink {
+        void accept(String[] chunk) throws IOException;
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "batch-converter-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package callchain.converter;
+
+/**
+ * Flag cancelling conversions from another thread. Conversions limited by {@link ConversionBudget}
+ * check it cooperatively and fail with {@link exceptions.BudgetExceededException} once it is set.
+ * One token may be shared by many conversions, e.g. by all chains of a batch.
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
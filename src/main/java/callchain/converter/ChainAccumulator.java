@@ -0,0 +1,160 @@
+package callchain.converter;
+
+import callchain.metrics.ConversionRecorder;
+import callchain.metrics.Phase;
+import callchain.parser.Call;
+import callchain.parser.CallChainParser;
+import callchain.parser.CallType;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import expressions.polynomial.Polynomial;
+import expressions.types.ArithmeticExpression;
+import expressions.types.LogicalExpression;
+import expressions.types.operations.And;
+import expressions.types.primitives.Bool;
+import expressions.types.primitives.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts <call-chain> incrementally: calls are appended one by one to the already converted chain.
+ * The composed map is kept as {@link Polynomial}, and the filter is kept simplified, so appending a map costs
+ * one composition, and appending a filter costs substitution of the current map and simplification of the conjunction
+ * of the current filter with the new one. Once the filter is always false, maps are not composed anymore.
+ * <p>
+ * The state consists of immutable values, so {@link #snapshot()} copies it in constant time,
+ * and branches of a session continue from the shared state independently.
+ * Instances are not thread-safe.
+ */
+public final class ChainAccumulator {
+
+    private final LogicBackend backend;
+
+    private Polynomial map;
+    private LogicalExpression filter;
+    private int callCount;
+
+    /**
+     * Expression of {@link #map}, {@code null} until it is needed.
+     */
+    private ArithmeticExpression mapExpression;
+
+    public ChainAccumulator() {
+        this(LogicBackend.REWRITING);
+    }
+
+    /**
+     * @param backend {@link LogicBackend} simplifying the filter after every appended filter
+     */
+    public ChainAccumulator(LogicBackend backend) {
+        this.backend = backend;
+        map = Polynomial.monomial(1, 1);
+        mapExpression = Element.of();
+        filter = Bool.of(true);
+    }
+
+    private ChainAccumulator(ChainAccumulator other) {
+        backend = other.backend;
+        map = other.map;
+        mapExpression = other.mapExpression;
+        filter = other.filter;
+        callCount = other.callCount;
+    }
+
+    /**
+     * Appends all calls of {@code callChain}. If it is invalid, the state is not changed.
+     *
+     * @param callChain {@link String} representing <call-chain> to append
+     * @return this accumulator
+     * @throws InvalidSyntaxException if {@code callChain} is in invalid format
+     * @throws InvalidTypeException   if there is call with wrong argument type
+     */
+    public ChainAccumulator append(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        CallChainParser parser = new CallChainParser(callChain);
+        List<Call> calls = new ArrayList<>();
+        while (parser.hasNextCall()) {
+            calls.add(parser.getCall());
+        }
+        for (Call call : calls) {
+            append(call);
+        }
+        return this;
+    }
+
+    /**
+     * Appends parsed {@code call}.
+     *
+     * @param call {@link Call} to append
+     * @return this accumulator
+     */
+    public ChainAccumulator append(Call call) {
+        return append(call, ConversionRecorder.disabled());
+    }
+
+    /**
+     * Appends parsed {@code call} measuring phases of its conversion with {@code recorder}.
+     *
+     * @param call     {@link Call} to append
+     * @param recorder {@link ConversionRecorder} of the conversion
+     * @return this accumulator
+     */
+    public ChainAccumulator append(Call call, ConversionRecorder recorder) {
+        callCount++;
+        if (isAlwaysFalse()) {
+            return this;
+        }
+        if (call.getCallType() == CallType.FILTER) {
+            if (mapExpression == null) {
+                recorder.enter(Phase.ARITHMETIC);
+            }
+            ArithmeticExpression element = getMapExpression();
+            recorder.enter(Phase.SUBSTITUTE);
+            LogicalExpression substituted = (LogicalExpression) ChainConverter.replaceElement(call.getExpression(), element);
+            recorder.enter(Phase.LOGIC);
+            filter = backend.simplify(And.of(filter, substituted));
+        } else {
+            recorder.enter(Phase.ARITHMETIC);
+            map = ((ArithmeticExpression) call.getExpression()).toPolynomial().compose(map);
+            mapExpression = null;
+        }
+        return this;
+    }
+
+    /**
+     * @return independent accumulator with the same state
+     */
+    public ChainAccumulator snapshot() {
+        return new ChainAccumulator(this);
+    }
+
+    /**
+     * @return number of appended calls
+     */
+    public int getCallCount() {
+        return callCount;
+    }
+
+    /**
+     * @return {@link ConvertedChain} equivalent to all appended calls
+     */
+    public ConvertedChain getResult() {
+        return new ConvertedChain(filter, isAlwaysFalse() ? Element.of() : getMapExpression());
+    }
+
+    private boolean isAlwaysFalse() {
+        return filter instanceof Bool && !((Bool) filter).isTrue();
+    }
+
+    private ArithmeticExpression getMapExpression() {
+        if (mapExpression == null) {
+            mapExpression = map.toExpression();
+        }
+        return mapExpression;
+    }
+
+    @Override
+    public String toString() {
+        return getResult().toString();
+    }
+}
@@ -0,0 +1,203 @@
+package callchain.converter;
+
+import callchain.metrics.ConversionRecorder;
+import callchain.metrics.Phase;
+import callchain.parser.Call;
+import callchain.parser.CallChainParser;
+import exceptions.BudgetExceededException;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import expressions.polynomial.Polynomial;
+import expressions.types.ArithmeticExpression;
+import expressions.types.Expression;
+import expressions.types.LogicalExpression;
+import expressions.types.operations.And;
+import expressions.types.operations.BinaryOperation;
+import expressions.types.primitives.Bool;
+import expressions.types.primitives.Element;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Converts <call-chain> into the equivalent pair of simplified <filter-call> and <map-call> expressions.
+ */
+public final class ChainConverter {
+
+    private ChainConverter() {
+    }
+
+    /**
+     * Converts {@code callChain} simplifying the resulting filter with {@link LogicBackend#REWRITING}.
+     *
+     * @param callChain {@link String} representing <call-chain> to convert
+     * @return {@link ConvertedChain} with simplified filter and map
+     * @throws InvalidSyntaxException if {@code callChain} is in invalid format
+     * @throws InvalidTypeException   if there is call with wrong argument type or argument type
+     *                                can not be inferred because of wrong typifying in expression
+     */
+    public static ConvertedChain convert(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        return convert(callChain, LogicBackend.REWRITING);
+    }
+
+    /**
+     * Converts {@code callChain} simplifying the resulting filter with {@code backend}.
+     * Consecutive maps are composed as polynomials, every filter gets the composition of maps preceding it
+     * substituted for {@link Element}.
+     * Phases of the conversion are measured while {@link callchain.metrics.ConversionMetrics} has listeners.
+     *
+     * @param callChain {@link String} representing <call-chain> to convert
+     * @param backend   {@link LogicBackend} simplifying the resulting filter
+     * @return {@link ConvertedChain} with simplified filter and map
+     * @throws InvalidSyntaxException if {@code callChain} is in invalid format
+     * @throws InvalidTypeException   if there is call with wrong argument type or argument type
+     *                                can not be inferred because of wrong typifying in expression
+     */
+    public static ConvertedChain convert(String callChain, LogicBackend backend) throws InvalidSyntaxException, InvalidTypeException {
+        ConversionRecorder recorder = ConversionRecorder.start(callChain.length());
+        try {
+            ConvertedChain result = convert(callChain, backend, recorder);
+            recorder.finish();
+            return result;
+        } catch (InvalidSyntaxException | InvalidTypeException | RuntimeException e) {
+            recorder.fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Converts {@code callChain} like {@link #convert(String, LogicBackend)} and renders the result,
+     * so measurements of the conversion include rendering.
+     *
+     * @param callChain {@link String} representing <call-chain> to convert
+     * @param backend   {@link LogicBackend} simplifying the resulting filter
+     * @return {@link String} in format <filter-call> "%>%" <map-call>
+     * @throws InvalidSyntaxException if {@code callChain} is in invalid format
+     * @throws InvalidTypeException   if there is call with wrong argument type or argument type
+     *                                can not be inferred because of wrong typifying in expression
+     */
+    public static String convertToString(String callChain, LogicBackend backend) throws InvalidSyntaxException, InvalidTypeException {
+        return convertToString(callChain, backend, OutputForm.EXPANDED);
+    }
+
+    /**
+     * Converts {@code callChain} like {@link #convertToString(String, LogicBackend)} writing polynomials
+     * of the result in {@code form}.
+     *
+     * @param callChain {@link String} representing <call-chain> to convert
+     * @param backend   {@link LogicBackend} simplifying the resulting filter
+     * @param form      {@link OutputForm} of polynomials of the result
+     * @return {@link String} in format <filter-call> "%>%" <map-call>
+     * @throws InvalidSyntaxException if {@code callChain} is in invalid format
+     * @throws InvalidTypeException   if there is call with wrong argument type or argument type
+     *                                can not be inferred because of wrong typifying in expression
+     */
+    public static String convertToString(String callChain, LogicBackend backend, OutputForm form)
+            throws InvalidSyntaxException, InvalidTypeException {
+        ConversionRecorder recorder = ConversionRecorder.start(callChain.length());
+        try {
+            ConvertedChain chain = convert(callChain, backend, recorder);
+            recorder.enter(Phase.RENDER);
+            String result = form.apply(chain).toString();
+            recorder.rendered(result.length());
+            recorder.finish();
+            return result;
+        } catch (InvalidSyntaxException | InvalidTypeException | RuntimeException e) {
+            recorder.fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Converts {@code callChain} like {@link #convertToString(String, LogicBackend)} returning errors
+     * instead of throwing them.
+     *
+     * @param callChain {@link String} representing <call-chain> to convert
+     * @param backend   {@link LogicBackend} simplifying the resulting filter
+     * @return {@link ConversionResult} with the chain in format <filter-call> "%>%" <map-call> or with the error
+     */
+    public static ConversionResult tryConvert(String callChain, LogicBackend backend) {
+        try {
+            return ConversionResult.success(convertToString(callChain, backend));
+        } catch (InvalidSyntaxException | InvalidTypeException e) {
+            return ConversionResult.failure(e);
+        } catch (BudgetExceededException e) {
+            return ConversionResult.failure(e);
+        }
+    }
+
+    private static ConvertedChain convert(String callChain, LogicBackend backend, ConversionRecorder recorder)
+            throws InvalidSyntaxException, InvalidTypeException {
+        CallChainParser parser = new CallChainParser(callChain);
+
+        Polynomial curMap = Polynomial.monomial(1, 1);
+        ArithmeticExpression curMapElement = Element.of();
+        LogicalExpression curFilterExpr = Bool.of(true);
+
+        while (parser.hasNextCall()) {
+            recorder.enter(Phase.PARSE);
+            Call call = parser.getCall();
+            recorder.countInput(call.getExpression());
+            switch (call.getCallType()) {
+                case FILTER: {
+                    if (curMapElement == null) {
+                        recorder.enter(Phase.ARITHMETIC);
+                        curMapElement = curMap.toExpression();
+                    }
+                    recorder.enter(Phase.SUBSTITUTE);
+                    Expression expr = replaceElement(call.getExpression(), curMapElement);
+                    curFilterExpr = And.of(curFilterExpr, (LogicalExpression) expr);
+                    break;
+                }
+                case MAP: {
+                    recorder.enter(Phase.ARITHMETIC);
+                    curMap = ((ArithmeticExpression) call.getExpression()).toPolynomial().compose(curMap);
+                    curMapElement = null;
+                    break;
+                }
+            }
+        }
+        recorder.enter(Phase.LOGIC);
+        LogicalExpression resultFilterExpr = backend.simplify(curFilterExpr);
+        ArithmeticExpression resultMapExpr = Element.of();
+
+        if (!(resultFilterExpr instanceof Bool) || ((Bool) resultFilterExpr).isTrue()) {
+            recorder.enter(Phase.ARITHMETIC);
+            resultMapExpr = curMap.toExpression();
+        }
+        recorder.countOutput(resultFilterExpr, resultMapExpr);
+
+        return new ConvertedChain(resultFilterExpr, resultMapExpr);
+    }
+
+    /**
+     * Substitutes {@code curElement} for every {@link Element} of {@code expression}.
+     * Operands are never copied: every shared subexpression is substituted once,
+     * and all its occurrences refer to the same result, so the result is a DAG of the same size.
+     *
+     * @param expression {@link Expression} to substitute into
+     * @param curElement {@link ArithmeticExpression} substituted for {@link Element}
+     * @return {@code expression} of the substituted element
+     */
+    public static Expression replaceElement(Expression expression, ArithmeticExpression curElement) {
+        return replaceElement(expression, curElement, new IdentityHashMap<>());
+    }
+
+    private static Expression replaceElement(Expression expression, ArithmeticExpression curElement,
+                                             Map<Expression, Expression> replaced) {
+        if (expression instanceof Element) {
+            return curElement;
+        }
+        if (expression instanceof BinaryOperation) {
+            Expression result = replaced.get(expression);
+            if (result == null) {
+                BinaryOperation operation = (BinaryOperation) expression;
+                result = operation.withOperands(replaceElement(operation.getLeft(), curElement, replaced),
+                        replaceElement(operation.getRight(), curElement, replaced));
+                replaced.put(expression, result);
+            }
+            return result;
+        }
+        return expression;
+    }
+}
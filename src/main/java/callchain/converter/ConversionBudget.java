@@ -0,0 +1,115 @@
+package callchain.converter;
+
+import expressions.types.Budget;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Immutable limits of a single conversion: number of created nodes, degree of polynomials and wall-clock time.
+ * Limits are checked cooperatively inside of building and simplification of expressions, so a pathological chain
+ * fails fast with {@link exceptions.BudgetExceededException} instead of stalling its thread.
+ */
+public final class ConversionBudget {
+
+    public static final ConversionBudget UNLIMITED = new ConversionBudget(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final long maxNodes;
+    private final long maxDegree;
+    private final long timeoutNanos;
+
+    private ConversionBudget(long maxNodes, long maxDegree, long timeoutNanos) {
+        this.maxNodes = maxNodes;
+        this.maxDegree = maxDegree;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * @param maxNodes maximum number of nodes created by the conversion, including terms of polynomials
+     *                 and products of elements written into the text
+     * @return budget with the changed limit
+     */
+    public ConversionBudget withMaxNodes(long maxNodes) {
+        checkPositive(maxNodes);
+        return new ConversionBudget(maxNodes, maxDegree, timeoutNanos);
+    }
+
+    /**
+     * @param maxDegree maximum degree of polynomials of the map
+     * @return budget with the changed limit
+     */
+    public ConversionBudget withMaxDegree(long maxDegree) {
+        checkPositive(maxDegree);
+        return new ConversionBudget(maxNodes, maxDegree, timeoutNanos);
+    }
+
+    /**
+     * @param timeout maximum duration of the conversion
+     * @param unit    unit of {@code timeout}
+     * @return budget with the changed limit
+     */
+    public ConversionBudget withTimeout(long timeout, TimeUnit unit) {
+        checkPositive(timeout);
+        return new ConversionBudget(maxNodes, maxDegree, unit.toNanos(timeout));
+    }
+
+    private static void checkPositive(long limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getMaxDegree() {
+        return maxDegree;
+    }
+
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    /**
+     * Binds the budget to the current thread, the deadline is counted from now.
+     * The conversion is also cancelled if its thread is interrupted.
+     *
+     * @param token {@link CancellationToken} cancelling the conversion
+     * @return {@link Budget} to close once the conversion finishes
+     */
+    public Budget enter(CancellationToken token) {
+        BooleanSupplier cancelled = () -> token.isCancelled() || Thread.currentThread().isInterrupted();
+        long deadline = timeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + timeoutNanos;
+        return Budget.enter(maxNodes, maxDegree, deadline, cancelled);
+    }
+
+    /**
+     * @param converter {@link Converter} to limit
+     * @return {@link Converter} running every conversion of {@code converter} within this budget
+     */
+    public Converter limit(Converter converter) {
+        return limit(converter, new CancellationToken());
+    }
+
+    /**
+     * @param converter {@link Converter} to limit
+     * @param token     {@link CancellationToken} cancelling all conversions
+     * @return {@link Converter} running every conversion of {@code converter} within this budget
+     */
+    public Converter limit(Converter converter, CancellationToken token) {
+        return callChain -> {
+            Budget budget = enter(token);
+            try {
+                return converter.convert(callChain);
+            } finally {
+                budget.close();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionBudget{maxNodes=" + maxNodes + ", maxDegree=" + maxDegree + ", timeoutNanos=" + timeoutNanos + '}';
+    }
+}
@@ -0,0 +1,123 @@
+package callchain.converter;
+
+import exceptions.BudgetExceededException;
+import exceptions.ConversionException;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+
+/**
+ * Outcome of a conversion: converted chain or error, so callers expecting many malformed chains
+ * do not have to catch exceptions. The message of the error is formatted only when it is requested.
+ * Results are immutable and may be shared, like the ones memoized by {@link callchain.cache.ConversionCache}.
+ */
+public final class ConversionResult {
+
+    public enum ErrorKind {
+        SYNTAX,
+        TYPE,
+        BUDGET
+    }
+
+    private final String value;
+    private final Exception error;
+
+    private ConversionResult(String value, Exception error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    public static ConversionResult success(String value) {
+        return new ConversionResult(value, null);
+    }
+
+    /**
+     * @param error {@link InvalidSyntaxException} or {@link InvalidTypeException} of the conversion
+     * @return failed result
+     */
+    public static ConversionResult failure(ConversionException error) {
+        if (!(error instanceof InvalidSyntaxException) && !(error instanceof InvalidTypeException)) {
+            throw new IllegalArgumentException("Unknown conversion error " + error.getClass().getName());
+        }
+        return new ConversionResult(null, error);
+    }
+
+    /**
+     * @param error {@link BudgetExceededException} of the conversion
+     * @return failed result
+     */
+    public static ConversionResult failure(BudgetExceededException error) {
+        return new ConversionResult(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return converted chain
+     * @throws IllegalStateException if the conversion failed
+     */
+    public String getValue() {
+        if (error != null) {
+            throw new IllegalStateException("Conversion failed with " + getErrorKind() + " error");
+        }
+        return value;
+    }
+
+    /**
+     * Returns the converted chain or throws the error of the conversion, the same instance every time.
+     *
+     * @return converted chain
+     * @throws InvalidSyntaxException  if the chain is in invalid format
+     * @throws InvalidTypeException    if there is call with wrong argument type
+     * @throws BudgetExceededException if the conversion exceeded its budget
+     */
+    public String get() throws InvalidSyntaxException, InvalidTypeException {
+        if (error instanceof InvalidSyntaxException) {
+            throw (InvalidSyntaxException) error;
+        }
+        if (error instanceof InvalidTypeException) {
+            throw (InvalidTypeException) error;
+        }
+        if (error instanceof BudgetExceededException) {
+            throw (BudgetExceededException) error;
+        }
+        return value;
+    }
+
+    /**
+     * @return kind of the error or {@code null} if the conversion succeeded
+     */
+    public ErrorKind getErrorKind() {
+        if (error == null) {
+            return null;
+        }
+        if (error instanceof InvalidSyntaxException) {
+            return ErrorKind.SYNTAX;
+        }
+        return error instanceof InvalidTypeException ? ErrorKind.TYPE : ErrorKind.BUDGET;
+    }
+
+    /**
+     * @return index in the chain where the error is found, or {@code -1} if it is unknown or there is no error
+     */
+    public int getErrorPosition() {
+        return error instanceof ConversionException ? ((ConversionException) error).getPosition() : -1;
+    }
+
+    /**
+     * @return message of the error formatted on the first request, or {@code null} if the conversion succeeded
+     */
+    public String getErrorMessage() {
+        return error == null ? null : error.getMessage();
+    }
+
+    @Override
+    public String toString() {
+        if (error == null) {
+            return value;
+        }
+        int position = getErrorPosition();
+        return getErrorKind() + " ERROR" + (position < 0 ? "" : " at " + position) + ": " + getErrorMessage();
+    }
+}
@@ -0,0 +1,58 @@
+package callchain.converter;
+
+import callchain.parser.Call;
+import callchain.parser.CallChainParser;
+import callchain.parser.CallType;
+import expressions.types.ArithmeticExpression;
+import expressions.types.Expression;
+import expressions.types.LogicalExpression;
+
+import java.io.IOException;
+
+/**
+ * Result of conversion: simplified expressions of <filter-call> and <map-call> applied one after another.
+ */
+public final class ConvertedChain {
+    private final LogicalExpression filter;
+    private final ArithmeticExpression map;
+
+    public ConvertedChain(LogicalExpression filter, ArithmeticExpression map) {
+        this.filter = filter;
+        this.map = map;
+    }
+
+    public LogicalExpression getFilter() {
+        return filter;
+    }
+
+    public ArithmeticExpression getMap() {
+        return map;
+    }
+
+    /**
+     * @return number of arithmetic operations in the text of the chain, see {@link OutputForm#estimateCost(Expression)}
+     */
+    public long estimateCost() {
+        return OutputForm.estimateCost(filter) + OutputForm.estimateCost(map);
+    }
+
+    /**
+     * Writes the chain in format <filter-call> "%>%" <map-call> straight into {@code out}.
+     *
+     * @param out destination of the text
+     * @param <A> type of the destination
+     * @return {@code out}
+     * @throws IOException if {@code out} fails
+     */
+    public <A extends Appendable> A writeTo(A out) throws IOException {
+        return CallChainParser.writeCalls(new Call(CallType.FILTER, filter), new Call(CallType.MAP, map), out);
+    }
+
+    /**
+     * @return {@link String} in format <filter-call> "%>%" <map-call>
+     */
+    @Override
+    public String toString() {
+        return CallChainParser.joinCalls(new Call(CallType.FILTER, filter), new Call(CallType.MAP, map));
+    }
+}
@@ -0,0 +1,38 @@
+package callchain.converter;
+
+import exceptions.BudgetExceededException;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+
+/**
+ * Function converting <call-chain> into the equivalent simplified form <filter-call> "%>%" <map-call>.
+ */
+@FunctionalInterface
+public interface Converter {
+
+    /**
+     * Converts {@code callChain} into the equivalent simplified chain.
+     *
+     * @param callChain {@link String} representing <call-chain> to convert
+     * @return {@link String} representing equivalent simplified chain
+     * @throws InvalidSyntaxException if {@code callChain} is in invalid format
+     * @throws InvalidTypeException   if there is call with wrong argument type
+     */
+    String convert(String callChain) throws InvalidSyntaxException, InvalidTypeException;
+
+    /**
+     * Converts {@code callChain} like {@link #convert(String)} returning errors instead of throwing them.
+     *
+     * @param callChain {@link String} representing <call-chain> to convert
+     * @return {@link ConversionResult} with equivalent simplified chain or with the error
+     */
+    default ConversionResult tryConvert(String callChain) {
+        try {
+            return ConversionResult.success(convert(callChain));
+        } catch (InvalidSyntaxException | InvalidTypeException e) {
+            return ConversionResult.failure(e);
+        } catch (BudgetExceededException e) {
+            return ConversionResult.failure(e);
+        }
+    }
+}
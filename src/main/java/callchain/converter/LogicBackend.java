@@ -0,0 +1,36 @@
+package callchain.converter;
+
+import expressions.bdd.BddSimplifier;
+import expressions.types.LogicalExpression;
+
+/**
+ * Strategy of simplification of the resulting <filter-call> expression.
+ */
+public enum LogicBackend {
+
+    /**
+     * Rewriting rules of the expression nodes, the default one.
+     */
+    REWRITING {
+        @Override
+        public LogicalExpression simplify(LogicalExpression expression) {
+            return (LogicalExpression) expression.simplify();
+        }
+    },
+
+    /**
+     * Canonical form built by the binary decision diagram of comparisons, it never expands expression into DNF.
+     */
+    BDD {
+        @Override
+        public LogicalExpression simplify(LogicalExpression expression) {
+            return BddSimplifier.simplify(expression);
+        }
+    };
+
+    /**
+     * @param expression {@link LogicalExpression} to simplify
+     * @return simplified equivalent {@link LogicalExpression}
+     */
+    public abstract LogicalExpression simplify(LogicalExpression expression);
+}
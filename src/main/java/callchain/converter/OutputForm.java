@@ -0,0 +1,137 @@
+package callchain.converter;
+
+import expressions.polynomial.Polynomial;
+import expressions.types.ArithmeticExpression;
+import expressions.types.Expression;
+import expressions.types.LogicalExpression;
+import expressions.types.operations.ArithmeticOperation;
+import expressions.types.operations.BinaryOperation;
+import expressions.types.primitives.Element;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Form of polynomials in the converted chain: the map and the arithmetic operands of comparisons of the filter.
+ * The cost of a form is the number of arithmetic operations in its text, where {@code element} of power {@code k}
+ * takes {@code k - 1} multiplications, i.e. the work of an executor evaluating the text as it is written.
+ */
+public enum OutputForm {
+
+    /**
+     * Sum of monomials in ascending order of powers, the default one.
+     */
+    EXPANDED {
+        @Override
+        public ArithmeticExpression express(Polynomial polynomial) {
+            return polynomial.toExpression();
+        }
+
+        @Override
+        public ConvertedChain apply(ConvertedChain chain) {
+            return chain;
+        }
+    },
+
+    /**
+     * Horner's scheme, it takes as many multiplications by element as the degree of the polynomial.
+     */
+    HORNER {
+        @Override
+        public ArithmeticExpression express(Polynomial polynomial) {
+            return polynomial.toHornerExpression();
+        }
+    },
+
+    /**
+     * The cheapest of {@link #EXPANDED} and {@link #HORNER} for every polynomial, the expanded one if they are equal.
+     */
+    AUTO {
+        @Override
+        public ArithmeticExpression express(Polynomial polynomial) {
+            ArithmeticExpression expanded = polynomial.toExpression();
+            ArithmeticExpression horner = polynomial.toHornerExpression();
+            return estimateCost(horner) < estimateCost(expanded) ? horner : expanded;
+        }
+    };
+
+    /**
+     * @param polynomial {@link Polynomial} to represent
+     * @return {@link ArithmeticExpression} of {@code polynomial} in this form
+     */
+    public abstract ArithmeticExpression express(Polynomial polynomial);
+
+    /**
+     * Rewrites polynomials of {@code chain} in this form, leaves are kept as they are.
+     *
+     * @param chain {@link ConvertedChain} with expanded polynomials
+     * @return equivalent {@link ConvertedChain}
+     */
+    public ConvertedChain apply(ConvertedChain chain) {
+        Map<Expression, Expression> rewritten = new IdentityHashMap<>();
+        return new ConvertedChain((LogicalExpression) rewrite(chain.getFilter(), rewritten),
+                (ArithmeticExpression) rewrite(chain.getMap(), rewritten));
+    }
+
+    private Expression rewrite(Expression expression, Map<Expression, Expression> rewritten) {
+        if (!(expression instanceof BinaryOperation)) {
+            return expression;
+        }
+        Expression result = rewritten.get(expression);
+        if (result == null) {
+            if (expression instanceof ArithmeticOperation) {
+                result = express(((ArithmeticOperation) expression).toPolynomial());
+            } else {
+                BinaryOperation operation = (BinaryOperation) expression;
+                result = operation.withOperands(rewrite(operation.getLeft(), rewritten),
+                        rewrite(operation.getRight(), rewritten));
+            }
+            rewritten.put(expression, result);
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the cost of evaluation of {@code expression} written as text, shared subexpressions are counted
+     * as many times as they are written.
+     *
+     * @param expression {@link Expression} to estimate
+     * @return number of arithmetic operations in the text of {@code expression}
+     */
+    public static long estimateCost(Expression expression) {
+        Map<Expression, Long> costs = new IdentityHashMap<>();
+        Deque<Expression> stack = new ArrayDeque<>();
+        stack.push(expression);
+        while (!stack.isEmpty()) {
+            Expression top = stack.peek();
+            if (!(top instanceof BinaryOperation) || costs.containsKey(top)) {
+                stack.pop();
+                continue;
+            }
+            BinaryOperation operation = (BinaryOperation) top;
+            boolean ready = true;
+            for (Expression operand : new Expression[]{operation.getLeft(), operation.getRight()}) {
+                if (operand instanceof BinaryOperation && !costs.containsKey(operand)) {
+                    stack.push(operand);
+                    ready = false;
+                }
+            }
+            if (ready) {
+                stack.pop();
+                long cost = costOf(operation.getLeft(), costs) + costOf(operation.getRight(), costs);
+                costs.put(operation, operation instanceof ArithmeticOperation ? cost + 1 : cost);
+            }
+        }
+        return costOf(expression, costs);
+    }
+
+    private static long costOf(Expression expression, Map<Expression, Long> costs) {
+        if (expression instanceof Element) {
+            return ((Element) expression).getPow() - 1;
+        }
+        Long cost = costs.get(expression);
+        return cost == null ? 0 : cost;
+    }
+}
@@ -0,0 +1,32 @@
+package callchain.executor;
+
+/**
+ * Applies converted chain to ranges of {@code int} arrays.
+ */
+public interface ArrayExecutor {
+
+    /**
+     * Applies the chain to values of {@code input} from {@code from} (inclusive) to {@code to} (exclusive)
+     * and writes values passed the filter to {@code output} starting from {@code outputOffset} in the same order.
+     *
+     * @param input        values to process
+     * @param from         index of the first value to process
+     * @param to           index after the last value to process
+     * @param output       buffer for the results, it must have room for {@code to - from} values
+     * @param outputOffset index of {@code output} for the first result
+     * @return number of values written to {@code output}
+     * @throws IndexOutOfBoundsException if the range of {@code input} is invalid or {@code output} is too small
+     */
+    int execute(int[] input, int from, int to, int[] output, int outputOffset);
+
+    /**
+     * Applies the chain to all values of {@code input}.
+     *
+     * @param input  values to process
+     * @param output buffer for the results, its length must be at least {@code input.length}
+     * @return number of values written to the beginning of {@code output}
+     */
+    default int execute(int[] input, int[] output) {
+        return execute(input, 0, input.length, output, 0);
+    }
+}
@@ -0,0 +1,105 @@
+package callchain.executor;
+
+import callchain.converter.ChainConverter;
+import callchain.converter.ConvertedChain;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles converted chains into JVM classes and caches them by the canonical text of the converted chain,
+ * so equivalent chains share one generated class. The least recently used classes are evicted,
+ * every class is defined by its own class loader, so evicted classes can be unloaded.
+ * Chains exceeding limits of the class file format are executed by {@link Program} interpreter.
+ */
+public final class ChainCompiler {
+
+    private static final String CLASS_NAME_PREFIX = ChainCompiler.class.getPackage().getName().replace('.', '/')
+            + "/GeneratedChain";
+
+    private static final AtomicLong classCounter = new AtomicLong();
+
+    private final Map<String, CompiledChain> cache;
+
+    /**
+     * @param maximumSize maximal number of cached compiled chains
+     */
+    public ChainCompiler(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        cache = new LinkedHashMap<String, CompiledChain>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledChain> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Converts {@code callChain} and compiles the result.
+     *
+     * @param callChain {@link String} representing <call-chain> to compile
+     * @return {@link CompiledChain} of the converted chain
+     * @throws InvalidSyntaxException if {@code callChain} is in invalid format
+     * @throws InvalidTypeException   if there is call with wrong argument type
+     */
+    public CompiledChain compile(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        return compile(ChainConverter.convert(callChain));
+    }
+
+    /**
+     * Returns the cached class of chain with the same canonical text or generates a new one.
+     *
+     * @param chain {@link ConvertedChain} to compile
+     * @return {@link CompiledChain} equivalent to {@code chain}
+     */
+    public CompiledChain compile(ConvertedChain chain) {
+        String key = chain.toString();
+        CompiledChain result;
+        synchronized (cache) {
+            result = cache.get(key);
+        }
+        if (result != null) {
+            return result;
+        }
+        result = generate(chain);
+        synchronized (cache) {
+            CompiledChain previous = cache.putIfAbsent(key, result);
+            return previous != null ? previous : result;
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static CompiledChain generate(ConvertedChain chain) {
+        String className = CLASS_NAME_PREFIX + classCounter.incrementAndGet();
+        byte[] classFile = ClassGenerator.generate(className, chain);
+        if (classFile == null) {
+            return new InterpretedChain(chain);
+        }
+        Class<?> generated = new ChainClassLoader().define(className.replace('/', '.'), classFile);
+        try {
+            return (CompiledChain) generated.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Generated class " + className + " can not be instantiated", e);
+        }
+    }
+
+    private static final class ChainClassLoader extends ClassLoader {
+        ChainClassLoader() {
+            super(CompiledChain.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package callchain.executor;
+
+import callchain.converter.ChainConverter;
+import callchain.converter.ConvertedChain;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import expressions.types.primitives.Bool;
+import expressions.types.primitives.Element;
+
+import java.lang.reflect.Constructor;
+import java.nio.Buffer;
+import java.nio.IntBuffer;
+
+/**
+ * Applies converted <filter-call> "%>%" <map-call> to arrays of {@code int} values.
+ * Both expressions are lowered into stack machine {@link Program}s once, and every element is filtered and mapped
+ * in one loop. Arithmetic follows Java {@code int} semantics, the same as in simplification of the chain.
+ * <p>
+ * Known limitation: conversion moves summands across {@code <} and {@code >} as if values were unbounded,
+ * e.g. {@code map{(element+1)}%>%filter{(element>2)}} gets the filter {@code (element>1)}. So the converted chain
+ * gives the same results as the original one, see {@link StagedChainExecutor}, only for elements on which
+ * the compared values of the original chain and their differences do not overflow {@code int}.
+ * For {@link Integer#MAX_VALUE} the original filter above rejects {@code element+1} wrapped to
+ * {@link Integer#MIN_VALUE}, and the converted one accepts the element. Maps and equalities are exact.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class ChainExecutor implements ArrayExecutor {
+
+    private final ConvertedChain chain;
+
+    /**
+     * Filter program, {@code null} if the filter is always true.
+     */
+    private final Program filter;
+
+    /**
+     * Map program, {@code null} if the map is identity.
+     */
+    private final Program map;
+
+    private final boolean alwaysFalse;
+    private final int stackSize;
+
+    public ChainExecutor(ConvertedChain chain) {
+        this.chain = chain;
+        alwaysFalse = chain.getFilter() instanceof Bool && !((Bool) chain.getFilter()).isTrue();
+        filter = chain.getFilter() instanceof Bool ? null : Program.compile(chain.getFilter());
+        map = chain.getMap() == Element.of() ? null : Program.compile(chain.getMap());
+        stackSize = Math.max(filter == null ? 0 : filter.getStackSize(), map == null ? 0 : map.getStackSize());
+    }
+
+    /**
+     * Converts {@code callChain} and compiles the result.
+     *
+     * @param callChain {@link String} representing <call-chain> to execute
+     * @return {@code ChainExecutor} of the converted chain
+     * @throws InvalidSyntaxException if {@code callChain} is in invalid format
+     * @throws InvalidTypeException   if there is call with wrong argument type
+     */
+    public static ChainExecutor compile(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        return new ChainExecutor(ChainConverter.convert(callChain));
+    }
+
+    /**
+     * Creates executor evaluating chunks of elements as vectors if the Vector API is available, i.e. the multi-release
+     * build runs on JDK 17+ with {@code --add-modules jdk.incubator.vector}. Otherwise {@code ChainExecutor} is created.
+     *
+     * @param chain {@link ConvertedChain} to execute
+     * @return {@link ArrayExecutor} giving the same results as {@code ChainExecutor}
+     */
+    public static ArrayExecutor vectorized(ConvertedChain chain) {
+        Constructor<?> constructor = VectorExecutorHolder.CONSTRUCTOR;
+        if (constructor != null) {
+            try {
+                return (ArrayExecutor) constructor.newInstance(chain);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Vector executor can not be created", e);
+            }
+        }
+        return new ChainExecutor(chain);
+    }
+
+    /**
+     * @return {@code true} if {@link #vectorized(ConvertedChain)} creates executors using the Vector API
+     */
+    public static boolean isVectorAvailable() {
+        return VectorExecutorHolder.CONSTRUCTOR != null;
+    }
+
+    public ConvertedChain getChain() {
+        return chain;
+    }
+
+    @Override
+    public int execute(int[] input, int from, int to, int[] output, int outputOffset) {
+        if (from < 0 || from > to || to > input.length) {
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ") of input of length " + input.length);
+        }
+        if (outputOffset < 0 || output.length - outputOffset < to - from) {
+            throw new IndexOutOfBoundsException("Output of length " + output.length + " has no room for "
+                    + (to - from) + " values from index " + outputOffset);
+        }
+        if (alwaysFalse) {
+            return 0;
+        }
+        int[] stack = new int[stackSize];
+        int size = outputOffset;
+        for (int i = from; i < to; i++) {
+            int element = input[i];
+            if (filter == null || filter.evaluate(element, stack) != 0) {
+                output[size++] = map == null ? element : map.evaluate(element, stack);
+            }
+        }
+        return size - outputOffset;
+    }
+
+    /**
+     * Filters and maps all remaining values of {@code input} writing results to {@code output} from its position.
+     * Buffers may be direct or mapped, so values are never copied onto the heap.
+     *
+     * @param input  values to execute the chain on
+     * @param output buffer with room for all remaining values of {@code input}
+     */
+    void execute(IntBuffer input, IntBuffer output) {
+        execute(input, output, newStack());
+    }
+
+    /**
+     * Same as {@link #execute(IntBuffer, IntBuffer)} using preallocated {@code stack} of {@link #newStack()}.
+     */
+    void execute(IntBuffer input, IntBuffer output, int[] stack) {
+        if (alwaysFalse) {
+            ((Buffer) input).position(input.limit());
+            return;
+        }
+        while (input.hasRemaining()) {
+            int element = input.get();
+            if (filter == null || filter.evaluate(element, stack) != 0) {
+                output.put(map == null ? element : map.evaluate(element, stack));
+            }
+        }
+    }
+
+    /**
+     * @return stack large enough to evaluate programs of this executor
+     */
+    int[] newStack() {
+        return new int[stackSize];
+    }
+
+    /**
+     * Counts values of {@code input} from {@code from} (inclusive) to {@code to} (exclusive) passing the filter.
+     */
+    int count(int[] input, int from, int to) {
+        if (alwaysFalse) {
+            return 0;
+        }
+        if (filter == null) {
+            return to - from;
+        }
+        int[] stack = new int[stackSize];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (filter.evaluate(input[i], stack) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Looks for the executor from the Java 17 part of the multi-release build once.
+     */
+    private static final class VectorExecutorHolder {
+        private static final String CLASS_NAME = "callchain.executor.VectorChainExecutor";
+
+        private static final Constructor<?> CONSTRUCTOR = findConstructor();
+
+        private static Constructor<?> findConstructor() {
+            try {
+                return Class.forName(CLASS_NAME).getConstructor(ConvertedChain.class);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package callchain.executor;
+
+import callchain.converter.ConvertedChain;
+import expressions.types.Expression;
+import expressions.types.operations.*;
+import expressions.types.primitives.Bool;
+import expressions.types.primitives.Const;
+import expressions.types.primitives.Element;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates class file of the final subclass of {@link CompiledChain} evaluating converted chain.
+ * Class file version 49 is used, so the verifier infers types itself and no stack map frames are needed.
+ * Logical values are computed as {@code int} {@code 1} or {@code 0}, arithmetic is done with plain {@code int}
+ * instructions, so results are the same as in {@link Program}.
+ */
+final class ClassGenerator {
+
+    private static final int VERSION = 49;
+    private static final int MAX_CODE_LENGTH = 65535;
+    private static final int MAX_CONSTANTS = 65535;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int ICONST_0 = 0x03;
+    private static final int ICONST_1 = 0x04;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int ILOAD = 0x15;
+    private static final int ILOAD_1 = 0x1b;
+    private static final int ILOAD_3 = 0x1d;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_2 = 0x2c;
+    private static final int IALOAD = 0x2e;
+    private static final int ISTORE = 0x36;
+    private static final int ISTORE_3 = 0x3e;
+    private static final int IASTORE = 0x4f;
+    private static final int DUP = 0x59;
+    private static final int IADD = 0x60;
+    private static final int ISUB = 0x64;
+    private static final int IMUL = 0x68;
+    private static final int IAND = 0x7e;
+    private static final int IOR = 0x80;
+    private static final int IINC = 0x84;
+    private static final int IFEQ = 0x99;
+    private static final int IF_ICMPEQ = 0x9f;
+    private static final int IF_ICMPLT = 0xa1;
+    private static final int IF_ICMPGE = 0xa2;
+    private static final int IF_ICMPGT = 0xa3;
+    private static final int GOTO = 0xa7;
+    private static final int IRETURN = 0xac;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int ARRAYLENGTH = 0xbe;
+
+    private static final String SUPER_CLASS = CompiledChain.class.getName().replace('.', '/');
+
+    private final String className;
+    private final List<byte[]> constants = new ArrayList<>();
+    private final Map<String, Integer> constantIndices = new HashMap<>();
+
+    private ClassGenerator(String className) {
+        this.className = className;
+    }
+
+    /**
+     * Generates class file for {@code chain}.
+     *
+     * @param className binary name of the generated class with '/' separators
+     * @param chain     {@link ConvertedChain} to compile
+     * @return bytes of class file or {@code null} if the code exceeds limits of the class file format
+     */
+    static byte[] generate(String className, ConvertedChain chain) {
+        try {
+            return new ClassGenerator(className).generate(chain);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] generate(ConvertedChain chain) throws IOException {
+        int thisClass = classConstant(className);
+        int superClass = classConstant(SUPER_CLASS);
+        List<byte[]> methods = new ArrayList<>();
+        methods.add(constructor());
+        methods.add(expressionMethod("test", "(I)Z", chain.getFilter()));
+        methods.add(expressionMethod("applyAsInt", "(I)I", chain.getMap()));
+        methods.add(processMethod());
+        for (byte[] method : methods) {
+            if (method == null) {
+                return null;
+            }
+        }
+        if (constants.size() >= MAX_CONSTANTS) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(VERSION);
+        out.writeShort(constants.size() + 1);
+        for (byte[] constant : constants) {
+            out.write(constant);
+        }
+        out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(methods.size());
+        for (byte[] method : methods) {
+            out.write(method);
+        }
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+
+    private byte[] constructor() throws IOException {
+        Code code = new Code();
+        code.op(ALOAD_0);
+        code.op(INVOKESPECIAL);
+        code.u2(methodConstant(SUPER_CLASS, "<init>", "()V"));
+        code.op(RETURN);
+        return method(ACC_PUBLIC, "<init>", "()V", code, 1, 1);
+    }
+
+    private byte[] expressionMethod(String name, String descriptor, Expression expression) throws IOException {
+        Code code = new Code();
+        int maxStack = emit(expression, code);
+        code.op(IRETURN);
+        return method(ACC_PUBLIC | ACC_FINAL, name, descriptor, code, maxStack, 2);
+    }
+
+    /**
+     * Fused loop calling {@code test} and {@code applyAsInt} of the final generated class.
+     * Locals: 0 - this, 1 - input, 2 - output, 3 - size, 4 - index, 5 - length, 6 - element.
+     */
+    private byte[] processMethod() throws IOException {
+        int test = methodConstant(className, "test", "(I)Z");
+        int apply = methodConstant(className, "applyAsInt", "(I)I");
+        Code code = new Code();
+        code.op(ICONST_0);
+        code.op(ISTORE_3);
+        code.op(ICONST_0);
+        code.op(ISTORE, 4);
+        code.op(ALOAD_1);
+        code.op(ARRAYLENGTH);
+        code.op(ISTORE, 5);
+
+        int loop = code.position();
+        code.op(ILOAD, 4);
+        code.op(ILOAD, 5);
+        int exitJump = code.jump(IF_ICMPGE);
+        code.op(ALOAD_1);
+        code.op(ILOAD, 4);
+        code.op(IALOAD);
+        code.op(ISTORE, 6);
+        code.op(ALOAD_0);
+        code.op(ILOAD, 6);
+        code.op(INVOKEVIRTUAL);
+        code.u2(test);
+        int skipJump = code.jump(IFEQ);
+        code.op(ALOAD_2);
+        code.op(ILOAD_3);
+        code.op(ALOAD_0);
+        code.op(ILOAD, 6);
+        code.op(INVOKEVIRTUAL);
+        code.u2(apply);
+        code.op(IASTORE);
+        code.op(IINC, 3);
+        code.u1(1);
+        code.bind(skipJump);
+        code.op(IINC, 4);
+        code.u1(1);
+        code.jumpTo(GOTO, loop);
+        code.bind(exitJump);
+        code.op(ILOAD_3);
+        code.op(IRETURN);
+        return method(ACC_PUBLIC | ACC_FINAL, "process", "([I[I)I", code, 4, 7);
+    }
+
+    /**
+     * Emits code leaving value of {@code expression} on the stack.
+     *
+     * @return maximal stack depth needed by the emitted code
+     */
+    private int emit(Expression expression, Code code) {
+        if (expression instanceof Const) {
+            pushConstant(((Const) expression).getValue(), code);
+            return 1;
+        }
+        if (expression instanceof Bool) {
+            code.op(((Bool) expression).isTrue() ? ICONST_1 : ICONST_0);
+            return 1;
+        }
+        if (expression instanceof Element) {
+            return emitPower(((Element) expression).getPow(), code);
+        }
+        if (!(expression instanceof BinaryOperation)) {
+            throw new IllegalArgumentException("Unsupported expression " + expression);
+        }
+        BinaryOperation operation = (BinaryOperation) expression;
+        int leftDepth = emit(operation.getLeft(), code);
+        int rightDepth = emit(operation.getRight(), code);
+        if (operation instanceof Add) {
+            code.op(IADD);
+        } else if (operation instanceof Subtract) {
+            code.op(ISUB);
+        } else if (operation instanceof Multiply) {
+            code.op(IMUL);
+        } else if (operation instanceof And) {
+            code.op(IAND);
+        } else if (operation instanceof Or) {
+            code.op(IOR);
+        } else if (operation instanceof Less) {
+            emitComparison(IF_ICMPLT, code);
+        } else if (operation instanceof Greater) {
+            emitComparison(IF_ICMPGT, code);
+        } else if (operation instanceof Equals) {
+            emitComparison(IF_ICMPEQ, code);
+        } else {
+            throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+        return Math.max(leftDepth, rightDepth + 1);
+    }
+
+    private static void emitComparison(int opcode, Code code) {
+        int trueJump = code.jump(opcode);
+        code.op(ICONST_0);
+        int endJump = code.jump(GOTO);
+        code.bind(trueJump);
+        code.op(ICONST_1);
+        code.bind(endJump);
+    }
+
+    /**
+     * Left-to-right binary exponentiation of element: squaring for every bit after the highest one
+     * and multiplication by element for every set bit.
+     */
+    private static int emitPower(int pow, Code code) {
+        code.op(ILOAD_1);
+        if (pow == 1) {
+            return 1;
+        }
+        for (int bit = 30 - Integer.numberOfLeadingZeros(pow); bit >= 0; bit--) {
+            code.op(DUP);
+            code.op(IMUL);
+            if (((pow >>> bit) & 1) != 0) {
+                code.op(ILOAD_1);
+                code.op(IMUL);
+            }
+        }
+        return 2;
+    }
+
+    private void pushConstant(int value, Code code) {
+        if (value >= -1 && value <= 5) {
+            code.op(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            code.op(BIPUSH);
+            code.u1(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            code.op(SIPUSH);
+            code.u2(value);
+        } else {
+            int index = integerConstant(value);
+            if (index < 256) {
+                code.op(LDC);
+                code.u1(index);
+            } else {
+                code.op(LDC_W);
+                code.u2(index);
+            }
+        }
+    }
+
+    private byte[] method(int access, String name, String descriptor, Code code, int maxStack, int maxLocals) throws IOException {
+        if (code.position() > MAX_CODE_LENGTH || maxStack > MAX_CODE_LENGTH) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(access);
+        out.writeShort(utf8Constant(name));
+        out.writeShort(utf8Constant(descriptor));
+        out.writeShort(1);
+        out.writeShort(utf8Constant("Code"));
+        out.writeInt(12 + code.position());
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.position());
+        code.writeTo(out);
+        out.writeShort(0);
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+
+    private int utf8Constant(String value) throws IOException {
+        Integer index = constantIndices.get("U" + value);
+        if (index == null) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(CONSTANT_UTF8);
+            out.writeUTF(value);
+            index = addConstant("U" + value, bytes.toByteArray());
+        }
+        return index;
+    }
+
+    private int classConstant(String name) throws IOException {
+        Integer index = constantIndices.get("C" + name);
+        if (index == null) {
+            int nameIndex = utf8Constant(name);
+            index = addConstant("C" + name, new byte[]{CONSTANT_CLASS, (byte) (nameIndex >> 8), (byte) nameIndex});
+        }
+        return index;
+    }
+
+    private int methodConstant(String owner, String name, String descriptor) throws IOException {
+        String key = "M" + owner + '.' + name + descriptor;
+        Integer index = constantIndices.get(key);
+        if (index == null) {
+            int ownerIndex = classConstant(owner);
+            int nameIndex = utf8Constant(name);
+            int descriptorIndex = utf8Constant(descriptor);
+            int nameAndType = addConstant("N" + name + descriptor, new byte[]{CONSTANT_NAME_AND_TYPE,
+                    (byte) (nameIndex >> 8), (byte) nameIndex, (byte) (descriptorIndex >> 8), (byte) descriptorIndex});
+            index = addConstant(key, new byte[]{CONSTANT_METHODREF,
+                    (byte) (ownerIndex >> 8), (byte) ownerIndex, (byte) (nameAndType >> 8), (byte) nameAndType});
+        }
+        return index;
+    }
+
+    private int integerConstant(int value) {
+        String key = "I" + value;
+        Integer index = constantIndices.get(key);
+        if (index == null) {
+            index = addConstant(key, new byte[]{CONSTANT_INTEGER,
+                    (byte) (value >> 24), (byte) (value >> 16), (byte) (value >> 8), (byte) value});
+        }
+        return index;
+    }
+
+    private int addConstant(String key, byte[] constant) {
+        constants.add(constant);
+        constantIndices.put(key, constants.size());
+        return constants.size();
+    }
+
+    /**
+     * Growing buffer of bytecode with forward jumps patched on binding.
+     */
+    private static final class Code {
+        private byte[] bytes = new byte[64];
+        private int size;
+
+        int position() {
+            return size;
+        }
+
+        void op(int opcode) {
+            u1(opcode);
+        }
+
+        void op(int opcode, int localIndex) {
+            u1(opcode);
+            u1(localIndex);
+        }
+
+        /**
+         * Emits jump with unknown target.
+         *
+         * @return position of the jump instruction to pass to {@link #bind(int)}
+         */
+        int jump(int opcode) {
+            int position = size;
+            u1(opcode);
+            u2(0);
+            return position;
+        }
+
+        void jumpTo(int opcode, int target) {
+            int position = size;
+            u1(opcode);
+            u2(target - position);
+        }
+
+        /**
+         * Sets target of the jump at {@code jumpPosition} to the current position.
+         */
+        void bind(int jumpPosition) {
+            int offset = size - jumpPosition;
+            bytes[jumpPosition + 1] = (byte) (offset >> 8);
+            bytes[jumpPosition + 2] = (byte) offset;
+        }
+
+        void u1(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, 2 * bytes.length);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void u2(int value) {
+            u1(value >> 8);
+            u1(value);
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.write(bytes, 0, size);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package callchain.executor;
+
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Converted chain compiled into a JVM class by {@link ChainCompiler}.
+ * Generated classes are final and implement all methods, so calls of {@link #test(int)} and {@link #applyAsInt(int)}
+ * from {@link #process(int[], int[])} are monomorphic and inlined by JIT.
+ */
+public abstract class CompiledChain implements IntPredicate, IntUnaryOperator {
+
+    protected CompiledChain() {
+    }
+
+    /**
+     * Evaluates filter of the chain.
+     *
+     * @param element value to check
+     * @return {@code true} if {@code element} passes the filter
+     */
+    @Override
+    public abstract boolean test(int element);
+
+    /**
+     * Evaluates map of the chain.
+     *
+     * @param element value to map
+     * @return mapped value
+     */
+    @Override
+    public abstract int applyAsInt(int element);
+
+    /**
+     * Applies the chain to all values of {@code input}.
+     *
+     * @param input  values to process
+     * @param output buffer for the results, its length must be at least {@code input.length}
+     * @return number of values written to the beginning of {@code output}
+     */
+    public abstract int process(int[] input, int[] output);
+}
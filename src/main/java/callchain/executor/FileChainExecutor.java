@@ -0,0 +1,80 @@
+package callchain.executor;
+
+import callchain.converter.ConvertedChain;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Applies converted chain to binary files of little-endian {@code int} values which may be larger than the heap.
+ * The input file is mapped window by window and read through {@link IntBuffer} views, results are collected
+ * in one direct buffer of the window size and written to the output channel after every window.
+ * Windows contain whole values, so no value spans the window boundary, and memory use does not depend on the file size.
+ */
+public final class FileChainExecutor {
+
+    private static final int DEFAULT_WINDOW_SIZE = 1 << 22;
+
+    private final ChainExecutor executor;
+    private final int windowSize;
+
+    public FileChainExecutor(ConvertedChain chain) {
+        this(chain, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param chain      {@link ConvertedChain} to execute
+     * @param windowSize number of values mapped at once
+     */
+    public FileChainExecutor(ConvertedChain chain, int windowSize) {
+        if (windowSize < 1 || windowSize > Integer.MAX_VALUE / Integer.BYTES) {
+            throw new IllegalArgumentException("Window size must be positive and less than 2^29");
+        }
+        this.executor = new ChainExecutor(chain);
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Executes the chain on all values of {@code input} and writes results to {@code output}.
+     * The output file is created or truncated.
+     *
+     * @param input  file of little-endian {@code int} values
+     * @param output file for little-endian results
+     * @return number of written values
+     * @throws IOException if files can not be read or written, or the size of {@code input} is not a multiple of 4
+     */
+    public long execute(Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            if (size % Integer.BYTES != 0) {
+                throw new IOException("Size of " + input + " is not a multiple of " + Integer.BYTES + " bytes");
+            }
+            long windowBytes = (long) windowSize * Integer.BYTES;
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(windowBytes, Math.max(size, Integer.BYTES)))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            IntBuffer results = buffer.asIntBuffer();
+            long written = 0;
+            for (long position = 0; position < size; position += windowBytes) {
+                IntBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowBytes, size - position))
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asIntBuffer();
+                ((Buffer) results).clear();
+                executor.execute(window, results);
+                ((Buffer) buffer).clear().limit(results.position() * Integer.BYTES);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                written += results.position();
+            }
+            return written;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package callchain.executor;
+
+import callchain.converter.ConvertedChain;
+
+/**
+ * {@link CompiledChain} evaluating {@link Program}s, used when the chain is too large for a class file.
+ */
+final class InterpretedChain extends CompiledChain {
+
+    private final ChainExecutor executor;
+    private final Program filter;
+    private final Program map;
+
+    InterpretedChain(ConvertedChain chain) {
+        executor = new ChainExecutor(chain);
+        filter = Program.compile(chain.getFilter());
+        map = Program.compile(chain.getMap());
+    }
+
+    @Override
+    public boolean test(int element) {
+        return filter.evaluate(element, new int[filter.getStackSize()]) != 0;
+    }
+
+    @Override
+    public int applyAsInt(int element) {
+        return map.evaluate(element, new int[map.getStackSize()]);
+    }
+
+    @Override
+    public int process(int[] input, int[] output) {
+        return executor.execute(input, output);
+    }
+}
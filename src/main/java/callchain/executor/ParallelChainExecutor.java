@@ -0,0 +1,124 @@
+package callchain.executor;
+
+import callchain.converter.ConvertedChain;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@link ArrayExecutor} processing large ranges on a fork/join pool in three passes:
+ * chunks of {@code threshold} elements count values passing the filter in parallel,
+ * exclusive prefix sum of the counts gives the output position of every chunk,
+ * and chunks write mapped values straight into their final positions in parallel.
+ * The output is the same as of the sequential execution, no intermediate buffers are used.
+ */
+public class ParallelChainExecutor implements ArrayExecutor, AutoCloseable {
+
+    private static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    private final ChainExecutor executor;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelChainExecutor(ConvertedChain chain) {
+        this(chain, Runtime.getRuntime().availableProcessors(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param chain       {@link ConvertedChain} to execute
+     * @param parallelism number of worker threads
+     * @param threshold   number of elements in one chunk, smaller ranges are processed sequentially
+     */
+    public ParallelChainExecutor(ConvertedChain chain, int parallelism, int threshold) {
+        if (parallelism < 1 || threshold < 1) {
+            throw new IllegalArgumentException("Parallelism and threshold must be positive");
+        }
+        this.executor = new ChainExecutor(chain);
+        this.threshold = threshold;
+        pool = new ForkJoinPool(parallelism, WorkerThread::new, null, false);
+    }
+
+    @Override
+    public int execute(int[] input, int from, int to, int[] output, int outputOffset) {
+        if (to - from <= threshold) {
+            return executor.execute(input, from, to, output, outputOffset);
+        }
+        if (from < 0 || from > to || to > input.length) {
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ") of input of length " + input.length);
+        }
+        if (outputOffset < 0 || output.length - outputOffset < to - from) {
+            throw new IndexOutOfBoundsException("Output of length " + output.length + " has no room for "
+                    + (to - from) + " values from index " + outputOffset);
+        }
+        int chunks = (int) ((to - from + (long) threshold - 1) / threshold);
+        int[] offsets = new int[chunks + 1];
+        pool.invoke(new ChunksTask(input, from, to, null, offsets, 0, chunks));
+        int sum = outputOffset;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int count = offsets[chunk];
+            offsets[chunk] = sum;
+            sum += count;
+        }
+        offsets[chunks] = sum;
+        pool.invoke(new ChunksTask(input, from, to, output, offsets, 0, chunks));
+        return sum - outputOffset;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Processes chunks from {@code firstChunk} (inclusive) to {@code lastChunk} (exclusive) splitting the range in halves.
+     * Without {@code output} it stores the number of values passing the filter in {@code offsets},
+     * otherwise it writes the results of every chunk starting from its offset.
+     */
+    private final class ChunksTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] input;
+        private final int from;
+        private final int to;
+        private final int[] output;
+        private final int[] offsets;
+        private final int firstChunk;
+        private final int lastChunk;
+
+        ChunksTask(int[] input, int from, int to, int[] output, int[] offsets, int firstChunk, int lastChunk) {
+            this.input = input;
+            this.from = from;
+            this.to = to;
+            this.output = output;
+            this.offsets = offsets;
+            this.firstChunk = firstChunk;
+            this.lastChunk = lastChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (lastChunk - firstChunk > 1) {
+                int middle = (firstChunk + lastChunk) >>> 1;
+                invokeAll(new ChunksTask(input, from, to, output, offsets, firstChunk, middle),
+                        new ChunksTask(input, from, to, output, offsets, middle, lastChunk));
+                return;
+            }
+            int chunkFrom = from + firstChunk * threshold;
+            int chunkTo = (int) Math.min(to, (long) chunkFrom + threshold);
+            if (output == null) {
+                offsets[firstChunk] = executor.count(input, chunkFrom, chunkTo);
+            } else {
+                executor.execute(input, chunkFrom, chunkTo, output, offsets[firstChunk]);
+            }
+        }
+    }
+
+    private static final class WorkerThread extends ForkJoinWorkerThread {
+        WorkerThread(ForkJoinPool pool) {
+            super(pool);
+            setName("chain-executor-" + getPoolIndex());
+            setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package callchain.executor;
+
+import java.util.Locale;
+
+/**
+ * Volumes and busy times of stages of {@link PipelinedChainExecutor}.
+ * Throughput of a stage is its volume divided by its busy time, so the stage with the lowest throughput
+ * is the bottleneck. Compute time is summed over all workers, so its throughput is multiplied by their number.
+ */
+public final class PipelineStatistics {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double BYTES_PER_MEGABYTE = 1 << 20;
+
+    private final int workers;
+    private final long elapsedNanos;
+    private final long readBytes;
+    private final long readNanos;
+    private final long computeNanos;
+    private final long writtenBytes;
+    private final long writeNanos;
+
+    PipelineStatistics(int workers, long elapsedNanos, long readBytes, long readNanos,
+                       long computeNanos, long writtenBytes, long writeNanos) {
+        this.workers = workers;
+        this.elapsedNanos = elapsedNanos;
+        this.readBytes = readBytes;
+        this.readNanos = readNanos;
+        this.computeNanos = computeNanos;
+        this.writtenBytes = writtenBytes;
+        this.writeNanos = writeNanos;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    public long getReadNanos() {
+        return readNanos;
+    }
+
+    /**
+     * @return time spent by all workers on filtering and mapping
+     */
+    public long getComputeNanos() {
+        return computeNanos;
+    }
+
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    /**
+     * @return megabytes of input read per second of reading
+     */
+    public double getReadThroughput() {
+        return throughput(readBytes, readNanos);
+    }
+
+    /**
+     * @return megabytes of input processed per second by all workers together
+     */
+    public double getComputeThroughput() {
+        return throughput(readBytes * workers, computeNanos);
+    }
+
+    /**
+     * @return megabytes of output written per second of writing
+     */
+    public double getWriteThroughput() {
+        return throughput(writtenBytes, writeNanos);
+    }
+
+    private static double throughput(long bytes, long nanos) {
+        return nanos == 0 ? Double.POSITIVE_INFINITY : bytes / BYTES_PER_MEGABYTE * NANOS_PER_SECOND / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "read %d bytes at %.1f MB/s, compute at %.1f MB/s by %d workers, "
+                        + "write %d bytes at %.1f MB/s, elapsed %.3f s",
+                readBytes, getReadThroughput(), getComputeThroughput(), workers,
+                writtenBytes, getWriteThroughput(), elapsedNanos / NANOS_PER_SECOND);
+    }
+}
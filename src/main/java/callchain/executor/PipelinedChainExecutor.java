@@ -0,0 +1,274 @@
+package callchain.executor;
+
+import callchain.converter.ConvertedChain;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Applies converted chain to a stream of little-endian {@code int} values, e.g. binary data from a pipe.
+ * The calling thread reads batches from the channel, compute workers filter and map them,
+ * and the writer thread drains results to the output channel in the input order.
+ * Batches of direct buffers are allocated once and recycled through a bounded ring,
+ * so the reader waits for free batches when compute or writing is slower, and the steady state allocates nothing.
+ * Executions of one instance are serialized.
+ */
+public final class PipelinedChainExecutor {
+
+    private static final int DEFAULT_BATCH_SIZE = 1 << 16;
+    private static final int DEFAULT_BATCHES = 16;
+
+    private final ChainExecutor executor;
+    private final int workers;
+    private final Batch[] batches;
+
+    private final BlockingQueue<Batch> free;
+    private final BlockingQueue<Batch> computeQueue;
+    private final BlockingQueue<Batch> writeQueue;
+
+    /**
+     * Marker of the end of the input, it is passed to every worker and to the writer.
+     */
+    private final Batch end = new Batch(0, 0);
+
+    public PipelinedChainExecutor(ConvertedChain chain) {
+        this(chain, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE, DEFAULT_BATCHES);
+    }
+
+    /**
+     * @param chain     {@link ConvertedChain} to execute
+     * @param workers   number of compute threads
+     * @param batchSize number of values in one batch
+     * @param batches   number of batches in the ring, i.e. maximum number of batches in progress
+     */
+    public PipelinedChainExecutor(ConvertedChain chain, int workers, int batchSize, int batches) {
+        if (workers < 1 || batchSize < 1 || batches < 1 || batchSize > Integer.MAX_VALUE / Integer.BYTES) {
+            throw new IllegalArgumentException("Number of workers, batch size and number of batches must be positive");
+        }
+        this.executor = new ChainExecutor(chain);
+        this.workers = workers;
+        this.batches = new Batch[batches];
+        for (int i = 0; i < batches; i++) {
+            this.batches[i] = new Batch(batchSize, executor.newStack().length);
+        }
+        free = new ArrayBlockingQueue<>(batches);
+        computeQueue = new ArrayBlockingQueue<>(batches + workers);
+        writeQueue = new ArrayBlockingQueue<>(batches + 1);
+    }
+
+    /**
+     * Executes the chain on all values of {@code input} and writes results to {@code output}.
+     *
+     * @param input  channel of little-endian {@code int} values, read until the end of stream
+     * @param output channel for little-endian results
+     * @return {@link PipelineStatistics} of the execution
+     * @throws IOException if reading or writing failed, or the input ends in the middle of a value
+     */
+    public synchronized PipelineStatistics execute(ReadableByteChannel input, WritableByteChannel output) throws IOException {
+        free.clear();
+        computeQueue.clear();
+        writeQueue.clear();
+        for (Batch batch : batches) {
+            free.add(batch);
+        }
+        Stage stage = new Stage();
+        Thread[] threads = new Thread[workers + 2];
+        for (int i = 0; i < workers; i++) {
+            threads[i] = stage.newThread("chain-pipeline-compute-" + (i + 1), () -> compute(stage));
+        }
+        threads[workers] = stage.newThread("chain-pipeline-writer", () -> write(output, stage));
+        threads[workers + 1] = Thread.currentThread();
+        stage.threads = threads;
+        for (int i = 0; i <= workers; i++) {
+            threads[i].start();
+        }
+        long started = System.nanoTime();
+        try {
+            read(input, stage);
+        } catch (IOException | InterruptedException | RuntimeException | Error e) {
+            stage.fail(e);
+        }
+        for (int i = 0; i <= workers; i++) {
+            while (threads[i].isAlive()) {
+                try {
+                    threads[i].join();
+                } catch (InterruptedException e) {
+                    stage.fail(new InterruptedIOException("Pipelined execution was interrupted"));
+                }
+            }
+        }
+        Thread.interrupted();
+        Throwable failure = stage.failure.get();
+        if (failure != null) {
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            }
+            if (failure instanceof InterruptedException) {
+                throw new InterruptedIOException("Pipelined execution was interrupted");
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw new IllegalStateException(failure);
+        }
+        return new PipelineStatistics(workers, System.nanoTime() - started, stage.readBytes, stage.readNanos,
+                stage.computeNanos.get(), stage.writtenBytes, stage.writeNanos);
+    }
+
+    private void read(ReadableByteChannel input, Stage stage) throws IOException, InterruptedException {
+        long sequence = 0;
+        boolean finished = false;
+        while (!finished) {
+            Batch batch = free.take();
+            ((Buffer) batch.input).clear();
+            long started = System.nanoTime();
+            while (batch.input.hasRemaining()) {
+                if (input.read(batch.input) < 0) {
+                    finished = true;
+                    break;
+                }
+            }
+            stage.readNanos += System.nanoTime() - started;
+            int bytes = batch.input.position();
+            stage.readBytes += bytes;
+            if (bytes % Integer.BYTES != 0) {
+                throw new IOException("Input ends in the middle of a value");
+            }
+            if (bytes == 0) {
+                free.add(batch);
+                break;
+            }
+            batch.sequence = sequence++;
+            ((Buffer) batch.values).clear().limit(bytes / Integer.BYTES);
+            computeQueue.put(batch);
+        }
+        for (int i = 0; i < workers; i++) {
+            computeQueue.put(end);
+        }
+        end.sequence = sequence;
+        writeQueue.put(end);
+    }
+
+    private void compute(Stage stage) throws InterruptedException {
+        Batch batch;
+        while ((batch = computeQueue.take()) != end) {
+            long started = System.nanoTime();
+            ((Buffer) batch.results).clear();
+            executor.execute(batch.values, batch.results, batch.stack);
+            ((Buffer) batch.output).clear().limit(batch.results.position() * Integer.BYTES);
+            stage.computeNanos.addAndGet(System.nanoTime() - started);
+            writeQueue.put(batch);
+        }
+    }
+
+    /**
+     * Writes batches in order of sequence numbers. Batches in progress have distinct numbers modulo the ring size.
+     */
+    private void write(WritableByteChannel output, Stage stage) throws IOException, InterruptedException {
+        Batch[] pending = new Batch[batches.length];
+        long next = 0;
+        long count = -1;
+        while (next != count) {
+            Batch batch = writeQueue.take();
+            if (batch == end) {
+                count = end.sequence;
+                continue;
+            }
+            pending[(int) (batch.sequence % pending.length)] = batch;
+            int slot;
+            while ((batch = pending[slot = (int) (next % pending.length)]) != null && batch.sequence == next) {
+                pending[slot] = null;
+                long started = System.nanoTime();
+                while (batch.output.hasRemaining()) {
+                    output.write(batch.output);
+                }
+                stage.writeNanos += System.nanoTime() - started;
+                stage.writtenBytes += batch.output.limit();
+                free.put(batch);
+                next++;
+            }
+        }
+    }
+
+    /**
+     * Direct buffers of one batch with views of its values and results.
+     */
+    private static final class Batch {
+        final ByteBuffer input;
+        final IntBuffer values;
+        final ByteBuffer output;
+        final IntBuffer results;
+        final int[] stack;
+        long sequence;
+
+        Batch(int size, int stackSize) {
+            input = ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            values = input.asIntBuffer();
+            output = ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            results = output.asIntBuffer();
+            stack = new int[stackSize];
+        }
+    }
+
+    /**
+     * State of one execution shared by threads of the pipeline.
+     * Counters of the reader and the writer are published to the calling thread by {@link Thread#join()}.
+     */
+    private static final class Stage {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicLong computeNanos = new AtomicLong();
+        /**
+         * Workers, the writer and the reading thread.
+         */
+        volatile Thread[] threads;
+        long readBytes;
+        long readNanos;
+        long writtenBytes;
+        long writeNanos;
+
+        Thread newThread(String name, Task task) {
+            Thread thread = new Thread(() -> {
+                try {
+                    task.run();
+                } catch (IOException | InterruptedException | RuntimeException | Error e) {
+                    fail(e);
+                }
+            }, name);
+            thread.setDaemon(true);
+            return thread;
+        }
+
+        /**
+         * Remembers the first failure and interrupts all threads of the pipeline, so blocked stages stop.
+         */
+        void fail(Throwable e) {
+            if (failure.compareAndSet(null, e)) {
+                Thread[] all = threads;
+                if (all != null) {
+                    for (Thread thread : all) {
+                        if (thread != Thread.currentThread()) {
+                            thread.interrupt();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private interface Task {
+        void run() throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,209 @@
+package callchain.executor;
+
+import expressions.types.Expression;
+import expressions.types.operations.*;
+import expressions.types.primitives.Bool;
+import expressions.types.primitives.Const;
+import expressions.types.primitives.Element;
+
+import java.util.Arrays;
+
+/**
+ * Expression lowered into a flat array of stack machine instructions.
+ * Operands of an instruction follow its opcode in the same array.
+ * Logical values are represented by {@code 1} and {@code 0}, arithmetic follows Java {@code int} semantics.
+ */
+final class Program {
+
+    static final int CONST = 0;
+    static final int ELEMENT = 1;
+    static final int POWER = 2;
+    static final int ADD = 3;
+    static final int SUBTRACT = 4;
+    static final int MULTIPLY = 5;
+    static final int LESS = 6;
+    static final int GREATER = 7;
+    static final int EQUALS = 8;
+    static final int AND = 9;
+    static final int OR = 10;
+
+    private final int[] code;
+    private final int stackSize;
+
+    private Program(int[] code, int stackSize) {
+        this.code = code;
+        this.stackSize = stackSize;
+    }
+
+    /**
+     * Lowers {@code expression} in postfix order, so evaluation of every operation finds its operands on top of the stack.
+     *
+     * @param expression arithmetic or logical {@link Expression} to lower
+     * @return {@code Program} evaluating {@code expression}
+     */
+    static Program compile(Expression expression) {
+        Builder builder = new Builder();
+        int stackSize = builder.emit(expression);
+        return new Program(builder.toArray(), stackSize);
+    }
+
+    /**
+     * @return maximal number of values on the stack during evaluation
+     */
+    int getStackSize() {
+        return stackSize;
+    }
+
+    /**
+     * Evaluates expression for the value {@code element}.
+     *
+     * @param element value of {@link Element}
+     * @param stack   array of at least {@link #getStackSize()} values used as the stack
+     * @return value of expression, {@code 1} or {@code 0} for logical expressions
+     */
+    int evaluate(int element, int[] stack) {
+        int[] code = this.code;
+        int sp = 0;
+        int pc = 0;
+        while (pc < code.length) {
+            switch (code[pc++]) {
+                case CONST:
+                    stack[sp++] = code[pc++];
+                    break;
+                case ELEMENT:
+                    stack[sp++] = element;
+                    break;
+                case POWER:
+                    stack[sp++] = power(element, code[pc++]);
+                    break;
+                case ADD:
+                    sp--;
+                    stack[sp - 1] += stack[sp];
+                    break;
+                case SUBTRACT:
+                    sp--;
+                    stack[sp - 1] -= stack[sp];
+                    break;
+                case MULTIPLY:
+                    sp--;
+                    stack[sp - 1] *= stack[sp];
+                    break;
+                case LESS:
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] < stack[sp] ? 1 : 0;
+                    break;
+                case GREATER:
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] > stack[sp] ? 1 : 0;
+                    break;
+                case EQUALS:
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] == stack[sp] ? 1 : 0;
+                    break;
+                case AND:
+                    sp--;
+                    stack[sp - 1] &= stack[sp];
+                    break;
+                case OR:
+                    sp--;
+                    stack[sp - 1] |= stack[sp];
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown opcode " + code[pc - 1]);
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * Exponentiation by squaring, equal to {@code pow - 1} multiplications because {@code int} multiplication
+     * is associative even with overflow.
+     */
+    static int power(int base, int pow) {
+        int result = 1;
+        while (pow != 0) {
+            if ((pow & 1) != 0) {
+                result *= base;
+            }
+            base *= base;
+            pow >>>= 1;
+        }
+        return result;
+    }
+
+    private static final class Builder {
+        private int[] code = new int[16];
+        private int size;
+
+        /**
+         * @return maximal stack depth needed to evaluate {@code expression}
+         */
+        int emit(Expression expression) {
+            if (expression instanceof Const) {
+                add(CONST, ((Const) expression).getValue());
+                return 1;
+            }
+            if (expression instanceof Bool) {
+                add(CONST, ((Bool) expression).isTrue() ? 1 : 0);
+                return 1;
+            }
+            if (expression instanceof Element) {
+                int pow = ((Element) expression).getPow();
+                if (pow == 1) {
+                    add(ELEMENT);
+                } else {
+                    add(POWER, pow);
+                }
+                return 1;
+            }
+            if (expression instanceof BinaryOperation) {
+                BinaryOperation operation = (BinaryOperation) expression;
+                int leftDepth = emit(operation.getLeft());
+                int rightDepth = emit(operation.getRight());
+                add(opcode(operation));
+                return Math.max(leftDepth, rightDepth + 1);
+            }
+            throw new IllegalArgumentException("Unsupported expression " + expression);
+        }
+
+        private static int opcode(BinaryOperation operation) {
+            if (operation instanceof Add) {
+                return ADD;
+            }
+            if (operation instanceof Subtract) {
+                return SUBTRACT;
+            }
+            if (operation instanceof Multiply) {
+                return MULTIPLY;
+            }
+            if (operation instanceof Less) {
+                return LESS;
+            }
+            if (operation instanceof Greater) {
+                return GREATER;
+            }
+            if (operation instanceof Equals) {
+                return EQUALS;
+            }
+            if (operation instanceof And) {
+                return AND;
+            }
+            if (operation instanceof Or) {
+                return OR;
+            }
+            throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+
+        private void add(int... values) {
+            if (size + values.length > code.length) {
+                code = Arrays.copyOf(code, Math.max(2 * code.length, size + values.length));
+            }
+            System.arraycopy(values, 0, code, size, values.length);
+            size += values.length;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(code, size);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package callchain.executor;
+
+import callchain.converter.ConvertedChain;
+import callchain.parser.Call;
+import callchain.parser.CallChainParser;
+import callchain.parser.CallType;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import expressions.types.ArithmeticExpression;
+import expressions.types.LogicalExpression;
+import expressions.types.primitives.Bool;
+import expressions.types.primitives.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies <call-chain> without conversion: every call is a separate stage passing its results to the next one
+ * through an intermediate array, like the original chain is executed.
+ * It is the baseline which {@link ChainExecutor} of the converted chain is compared with. Results of both differ
+ * on elements for which comparisons of the original chain overflow, see the limitation in {@link ChainExecutor}.
+ */
+public final class StagedChainExecutor implements ArrayExecutor {
+
+    private final ChainExecutor[] stages;
+
+    private StagedChainExecutor(ChainExecutor[] stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * Parses {@code callChain} and compiles expressions of its calls as they are, without simplification.
+     *
+     * @param callChain {@link String} representing <call-chain> to execute
+     * @return {@code StagedChainExecutor} with a stage for every call
+     * @throws InvalidSyntaxException if {@code callChain} is in invalid format
+     * @throws InvalidTypeException   if there is call with wrong argument type
+     */
+    public static StagedChainExecutor compile(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        CallChainParser parser = new CallChainParser(callChain);
+        List<ChainExecutor> stages = new ArrayList<>();
+        while (parser.hasNextCall()) {
+            Call call = parser.getCall();
+            ConvertedChain stage = call.getCallType() == CallType.FILTER
+                    ? new ConvertedChain((LogicalExpression) call.getExpression(), Element.of())
+                    : new ConvertedChain(Bool.of(true), (ArithmeticExpression) call.getExpression());
+            stages.add(new ChainExecutor(stage));
+        }
+        return new StagedChainExecutor(stages.toArray(new ChainExecutor[0]));
+    }
+
+    /**
+     * @return number of calls of the chain
+     */
+    public int getStageCount() {
+        return stages.length;
+    }
+
+    @Override
+    public int execute(int[] input, int from, int to, int[] output, int outputOffset) {
+        if (from < 0 || from > to || to > input.length) {
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ") of input of length " + input.length);
+        }
+        if (outputOffset < 0 || output.length - outputOffset < to - from) {
+            throw new IndexOutOfBoundsException("Output of length " + output.length + " has no room for "
+                    + (to - from) + " values from index " + outputOffset);
+        }
+        if (stages.length == 1) {
+            return stages[0].execute(input, from, to, output, outputOffset);
+        }
+        int[] current = new int[to - from];
+        int size = stages[0].execute(input, from, to, current, 0);
+        int[] next = new int[to - from];
+        for (int i = 1; i < stages.length - 1; i++) {
+            size = stages[i].execute(current, 0, size, next, 0);
+            int[] swap = current;
+            current = next;
+            next = swap;
+        }
+        return stages[stages.length - 1].execute(current, 0, size, output, outputOffset);
+    }
+}
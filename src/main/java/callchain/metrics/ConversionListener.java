@@ -0,0 +1,11 @@
+package callchain.metrics;
+
+/**
+ * Receives {@link ConversionRecord} of every conversion while it is registered in {@link ConversionMetrics}.
+ * It is called by the converting thread, so implementations must be thread-safe and fast.
+ */
+@FunctionalInterface
+public interface ConversionListener {
+
+    void conversionFinished(ConversionRecord record);
+}
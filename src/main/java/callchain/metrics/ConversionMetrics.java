@@ -0,0 +1,55 @@
+package callchain.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of {@link ConversionListener}s. Conversions are measured only while at least one listener is registered.
+ */
+public final class ConversionMetrics {
+
+    private static final String FLIGHT_RECORDER_LISTENER = "callchain.metrics.FlightRecorderListener";
+
+    private static final List<ConversionListener> listeners = new CopyOnWriteArrayList<>();
+    private static volatile boolean enabled;
+
+    private ConversionMetrics() {
+    }
+
+    public static synchronized void addListener(ConversionListener listener) {
+        listeners.add(listener);
+        enabled = true;
+    }
+
+    public static synchronized void removeListener(ConversionListener listener) {
+        listeners.remove(listener);
+        enabled = !listeners.isEmpty();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registers the listener emitting a JFR event for every conversion.
+     * The listener is in the Java 17 part of the multi-release build, so on older runtimes nothing is registered.
+     *
+     * @return {@code true} if the listener has been registered
+     */
+    public static boolean enableFlightRecorder() {
+        ConversionListener listener;
+        try {
+            listener = (ConversionListener) Class.forName(FLIGHT_RECORDER_LISTENER).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+        addListener(listener);
+        return true;
+    }
+
+    static void publish(ConversionRecord record) {
+        for (ConversionListener listener : listeners) {
+            listener.conversionFinished(record);
+        }
+    }
+}
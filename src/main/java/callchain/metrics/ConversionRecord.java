@@ -0,0 +1,81 @@
+package callchain.metrics;
+
+/**
+ * Measurements of one conversion.
+ */
+public final class ConversionRecord {
+
+    private final int inputLength;
+    private final long[] phaseNanos;
+    private final int nodesBefore;
+    private final int nodesAfter;
+    private final int outputLength;
+    private final Class<? extends Throwable> errorClass;
+
+    ConversionRecord(int inputLength, long[] phaseNanos, int nodesBefore, int nodesAfter, int outputLength,
+                     Class<? extends Throwable> errorClass) {
+        this.inputLength = inputLength;
+        this.phaseNanos = phaseNanos;
+        this.nodesBefore = nodesBefore;
+        this.nodesAfter = nodesAfter;
+        this.outputLength = outputLength;
+        this.errorClass = errorClass;
+    }
+
+    /**
+     * @return length of the converted <call-chain>
+     */
+    public int getInputLength() {
+        return inputLength;
+    }
+
+    /**
+     * @return time spent in {@code phase}, {@code 0} if the phase has not been reached
+     */
+    public long getNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (long nanos : phaseNanos) {
+            total += nanos;
+        }
+        return total;
+    }
+
+    /**
+     * @return number of distinct nodes of parsed expressions of all calls
+     */
+    public int getNodesBefore() {
+        return nodesBefore;
+    }
+
+    /**
+     * @return number of distinct nodes of the converted filter and map, {@code 0} if conversion failed
+     */
+    public int getNodesAfter() {
+        return nodesAfter;
+    }
+
+    /**
+     * @return length of the rendered chain, {@code 0} if it has not been rendered
+     */
+    public int getOutputLength() {
+        return outputLength;
+    }
+
+    /**
+     * @return simple name of the exception class which conversion failed with, {@code null} if it succeeded
+     */
+    public String getErrorType() {
+        return errorClass == null ? null : errorClass.getSimpleName();
+    }
+
+    /**
+     * @return class of the exception which conversion failed with, {@code null} if it succeeded
+     */
+    public Class<? extends Throwable> getErrorClass() {
+        return errorClass;
+    }
+}
@@ -0,0 +1,135 @@
+package callchain.metrics;
+
+import expressions.types.Expression;
+import expressions.types.operations.BinaryOperation;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Measures phases of one conversion and publishes {@link ConversionRecord} to {@link ConversionMetrics}.
+ * Without listeners the shared disabled recorder is used, and every method returns after a single check,
+ * so conversions are not slowed down.
+ */
+public final class ConversionRecorder {
+
+    private static final ConversionRecorder DISABLED = new ConversionRecorder(false, 0);
+
+    private final boolean enabled;
+    private final int inputLength;
+    private final long[] phaseNanos;
+    private final Set<Expression> inputNodes;
+
+    private Phase phase;
+    private long phaseStart;
+    private int nodesAfter;
+    private int outputLength;
+
+    private ConversionRecorder(boolean enabled, int inputLength) {
+        this.enabled = enabled;
+        this.inputLength = inputLength;
+        phaseNanos = enabled ? new long[Phase.values().length] : null;
+        inputNodes = enabled ? Collections.newSetFromMap(new IdentityHashMap<>()) : null;
+    }
+
+    /**
+     * @return recorder ignoring all measurements
+     */
+    public static ConversionRecorder disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Starts measurement of conversion from {@link Phase#PARSE}.
+     *
+     * @param inputLength length of the converted chain
+     * @return new recorder if there are listeners, otherwise the disabled one
+     */
+    public static ConversionRecorder start(int inputLength) {
+        if (!ConversionMetrics.isEnabled()) {
+            return DISABLED;
+        }
+        ConversionRecorder recorder = new ConversionRecorder(true, inputLength);
+        recorder.phase = Phase.PARSE;
+        recorder.phaseStart = System.nanoTime();
+        return recorder;
+    }
+
+    /**
+     * Stops measurement of the current phase and starts {@code next}.
+     */
+    public void enter(Phase next) {
+        if (!enabled || next == phase) {
+            return;
+        }
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - phaseStart;
+        phase = next;
+        phaseStart = now;
+    }
+
+    /**
+     * Counts nodes of the parsed expression of a call, nodes shared with other calls are counted once.
+     */
+    public void countInput(Expression expression) {
+        if (enabled) {
+            addNodes(expression, inputNodes);
+        }
+    }
+
+    /**
+     * Counts nodes of the converted filter and map.
+     */
+    public void countOutput(Expression filter, Expression map) {
+        if (enabled) {
+            Set<Expression> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+            addNodes(filter, nodes);
+            addNodes(map, nodes);
+            nodesAfter = nodes.size();
+        }
+    }
+
+    public void rendered(int outputLength) {
+        if (enabled) {
+            this.outputLength = outputLength;
+        }
+    }
+
+    /**
+     * Stops measurement and publishes the record of the successful conversion.
+     */
+    public void finish() {
+        publish(null);
+    }
+
+    /**
+     * Stops measurement and publishes the record of the conversion failed with {@code error}.
+     */
+    public void fail(Throwable error) {
+        publish(error.getClass());
+    }
+
+    private void publish(Class<? extends Throwable> errorClass) {
+        if (!enabled) {
+            return;
+        }
+        phaseNanos[phase.ordinal()] += System.nanoTime() - phaseStart;
+        ConversionMetrics.publish(new ConversionRecord(inputLength, phaseNanos, inputNodes.size(),
+                errorClass == null ? nodesAfter : 0, outputLength, errorClass));
+    }
+
+    private static void addNodes(Expression expression, Set<Expression> nodes) {
+        Deque<Expression> stack = new ArrayDeque<>();
+        stack.push(expression);
+        while (!stack.isEmpty()) {
+            Expression node = stack.pop();
+            if (nodes.add(node) && node instanceof BinaryOperation) {
+                stack.push(((BinaryOperation) node).getLeft());
+                stack.push(((BinaryOperation) node).getRight());
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package callchain.metrics;
+
+import exceptions.BudgetExceededException;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ConversionListener} aggregating counters, sizes and latency histograms of phases of all conversions.
+ * Histograms have power-of-two buckets of nanoseconds, so percentiles are exact up to a factor of two.
+ */
+public final class ConversionStatistics implements ConversionListener, ConversionStatisticsMBean {
+
+    /**
+     * Name of the MBean registered by {@link #register()}.
+     */
+    public static final String OBJECT_NAME = "callchain:type=ConversionStatistics";
+
+    private static final int BUCKETS = Long.SIZE + 1;
+    private static final double NANOS_PER_MICRO = 1000;
+
+    /**
+     * Statistics registered by the last call of {@link #register()}.
+     */
+    private static ConversionStatistics registered;
+
+    private final LongAdder conversions = new LongAdder();
+    private final LongAdder syntaxErrors = new LongAdder();
+    private final LongAdder typeErrors = new LongAdder();
+    private final LongAdder budgetErrors = new LongAdder();
+    private final LongAdder otherErrors = new LongAdder();
+    private final LongAdder inputLength = new LongAdder();
+    private final LongAdder outputLength = new LongAdder();
+    private final LongAdder nodesBefore = new LongAdder();
+    private final LongAdder nodesAfter = new LongAdder();
+    private final LongAdder[] phaseNanos = new LongAdder[Phase.values().length];
+
+    /**
+     * Bucket {@code b} of phase {@code p} at {@code p * BUCKETS + b} counts times below {@code 2^b} nanoseconds.
+     */
+    private final AtomicLongArray histograms = new AtomicLongArray(Phase.values().length * BUCKETS);
+
+    public ConversionStatistics() {
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Creates statistics, registers them as a listener and as the MBean {@value #OBJECT_NAME}
+     * of the platform MBean server, replacing the previously registered MBean and removing its listener.
+     *
+     * @return registered {@code ConversionStatistics}
+     */
+    public static synchronized ConversionStatistics register() {
+        ConversionStatistics statistics = new ConversionStatistics();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            try {
+                server.registerMBean(statistics, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(statistics, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Conversion statistics can not be registered", e);
+        }
+        if (registered != null) {
+            ConversionMetrics.removeListener(registered);
+        }
+        registered = statistics;
+        ConversionMetrics.addListener(statistics);
+        return statistics;
+    }
+
+    @Override
+    public void conversionFinished(ConversionRecord record) {
+        conversions.increment();
+        Class<? extends Throwable> errorClass = record.getErrorClass();
+        if (errorClass != null) {
+            if (InvalidSyntaxException.class.isAssignableFrom(errorClass)) {
+                syntaxErrors.increment();
+            } else if (InvalidTypeException.class.isAssignableFrom(errorClass)) {
+                typeErrors.increment();
+            } else if (BudgetExceededException.class.isAssignableFrom(errorClass)) {
+                budgetErrors.increment();
+            } else {
+                otherErrors.increment();
+            }
+        }
+        inputLength.add(record.getInputLength());
+        outputLength.add(record.getOutputLength());
+        nodesBefore.add(record.getNodesBefore());
+        nodesAfter.add(record.getNodesAfter());
+        for (Phase phase : Phase.values()) {
+            long nanos = record.getNanos(phase);
+            if (nanos > 0) {
+                phaseNanos[phase.ordinal()].add(nanos);
+                histograms.incrementAndGet(phase.ordinal() * BUCKETS + Long.SIZE - Long.numberOfLeadingZeros(nanos));
+            }
+        }
+    }
+
+    @Override
+    public long getConversions() {
+        return conversions.sum();
+    }
+
+    @Override
+    public long getSyntaxErrors() {
+        return syntaxErrors.sum();
+    }
+
+    @Override
+    public long getTypeErrors() {
+        return typeErrors.sum();
+    }
+
+    @Override
+    public long getBudgetErrors() {
+        return budgetErrors.sum();
+    }
+
+    @Override
+    public long getOtherErrors() {
+        return otherErrors.sum();
+    }
+
+    @Override
+    public double getMeanInputLength() {
+        return mean(inputLength.sum(), getConversions());
+    }
+
+    @Override
+    public double getMeanOutputLength() {
+        return mean(outputLength.sum(), getConversions());
+    }
+
+    @Override
+    public double getMeanNodesBefore() {
+        return mean(nodesBefore.sum(), getConversions());
+    }
+
+    @Override
+    public double getMeanNodesAfter() {
+        return mean(nodesAfter.sum(), getConversions());
+    }
+
+    /**
+     * @return number of conversions which reached {@code phase}
+     */
+    public long getCount(Phase phase) {
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            count += histograms.get(phase.ordinal() * BUCKETS + bucket);
+        }
+        return count;
+    }
+
+    public double getMeanMicros(Phase phase) {
+        return mean(phaseNanos[phase.ordinal()].sum(), getCount(phase)) / NANOS_PER_MICRO;
+    }
+
+    /**
+     * @param phase      measured {@link Phase}
+     * @param percentile percentile from 0 to 100
+     * @return upper bound of the bucket containing {@code percentile} of times of {@code phase} in microseconds
+     */
+    public double getPercentileMicros(Phase phase, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be from 0 to 100");
+        }
+        long count = getCount(phase);
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += histograms.get(phase.ordinal() * BUCKETS + bucket);
+            if (seen >= rank && seen > 0) {
+                return Math.pow(2, bucket) / NANOS_PER_MICRO;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public double getMeanMicros(String phase) {
+        return getMeanMicros(Phase.valueOf(phase.toUpperCase(Locale.ROOT)));
+    }
+
+    @Override
+    public double getPercentileMicros(String phase, double percentile) {
+        return getPercentileMicros(Phase.valueOf(phase.toUpperCase(Locale.ROOT)), percentile);
+    }
+
+    @Override
+    public String getSummary() {
+        StringBuilder result = new StringBuilder(String.format(Locale.ROOT,
+                "conversions %d, syntax errors %d, type errors %d, budget errors %d, other errors %d, nodes %.1f -> %.1f",
+                getConversions(), getSyntaxErrors(), getTypeErrors(), getBudgetErrors(), getOtherErrors(),
+                getMeanNodesBefore(), getMeanNodesAfter()));
+        for (Phase phase : Phase.values()) {
+            result.append(String.format(Locale.ROOT, "; %s mean %.1f us, p50 %.1f us, p99 %.1f us",
+                    phase.name().toLowerCase(Locale.ROOT), getMeanMicros(phase),
+                    getPercentileMicros(phase, 50), getPercentileMicros(phase, 99)));
+        }
+        return result.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder adder : new LongAdder[]{conversions, syntaxErrors, typeErrors, budgetErrors, otherErrors,
+                inputLength, outputLength, nodesBefore, nodesAfter}) {
+            adder.reset();
+        }
+        for (LongAdder adder : phaseNanos) {
+            adder.reset();
+        }
+        for (int i = 0; i < histograms.length(); i++) {
+            histograms.set(i, 0);
+        }
+    }
+
+    private static double mean(long sum, long count) {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
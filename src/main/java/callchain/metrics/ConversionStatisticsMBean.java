@@ -0,0 +1,48 @@
+package callchain.metrics;
+
+/**
+ * JMX view of {@link ConversionStatistics}. Phases are names of {@link Phase} constants.
+ */
+public interface ConversionStatisticsMBean {
+
+    long getConversions();
+
+    long getSyntaxErrors();
+
+    long getTypeErrors();
+
+    /**
+     * @return number of conversions exceeding their budget
+     */
+    long getBudgetErrors();
+
+    /**
+     * @return number of conversions failed with other exceptions
+     */
+    long getOtherErrors();
+
+    double getMeanInputLength();
+
+    double getMeanOutputLength();
+
+    double getMeanNodesBefore();
+
+    double getMeanNodesAfter();
+
+    /**
+     * @return mean time of {@code phase} in microseconds
+     */
+    double getMeanMicros(String phase);
+
+    /**
+     * @return upper bound of {@code percentile} of time of {@code phase} in microseconds
+     */
+    double getPercentileMicros(String phase, double percentile);
+
+    /**
+     * @return counters and latencies of all phases in one line
+     */
+    String getSummary();
+
+    void reset();
+}
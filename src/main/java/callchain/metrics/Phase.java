@@ -0,0 +1,27 @@
+package callchain.metrics;
+
+/**
+ * Phases of conversion of <call-chain> measured by {@link ConversionRecorder}.
+ */
+public enum Phase {
+    /**
+     * Splitting the chain into calls and parsing their expressions.
+     */
+    PARSE,
+    /**
+     * Substitution of the composed map into filters.
+     */
+    SUBSTITUTE,
+    /**
+     * Composition of maps as polynomials and generation of their expressions.
+     */
+    ARITHMETIC,
+    /**
+     * Simplification of the resulting filter.
+     */
+    LOGIC,
+    /**
+     * Rendering of the converted chain.
+     */
+    RENDER
+}
@@ -20,6 +20,6 @@ public class Call {
     }
 
     public String getCallName() {
-        return String.valueOf(callType).toLowerCase();
+        return callType.getName();
     }
 }
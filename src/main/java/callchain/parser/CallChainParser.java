@@ -3,14 +3,18 @@ package callchain.parser;
 import exceptions.InvalidSyntaxException;
 import exceptions.InvalidTypeException;
 import expressions.parser.ExpressionParser;
+import expressions.types.ExpressionWriter;
 import expressions.types.ArithmeticExpression;
 import expressions.types.Expression;
 import expressions.types.LogicalExpression;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 public class CallChainParser {
 
-    private final static String EXPR_START = "{";
-    private final static String EXPR_END = "}";
+    private final static char EXPR_START = '{';
+    private final static char EXPR_END = '}';
     private final static String CALLS_SEPARATOR = "%>%";
 
     private final String callChain;
@@ -28,60 +32,94 @@ public class CallChainParser {
     }
 
     public Call getCall() throws InvalidSyntaxException, InvalidTypeException {
-        Call filterCall = tryParseCall(CallType.FILTER, LogicalExpression.class);
-        Call mapCall = tryParseCall(CallType.MAP, ArithmeticExpression.class);
-        Call result = filterCall == null ? mapCall : filterCall;
+        Call result = tryParseCall(CallType.FILTER, LogicalExpression.class);
+        if (result == null) {
+            result = tryParseCall(CallType.MAP, ArithmeticExpression.class);
+        }
         if (result == null) {
-            throw new InvalidSyntaxException("Illegal operation: expected 'filter' or 'map', found '" + getWord() + "\'");
+            int position = curPointer;
+            String word = getWord();
+            throw new InvalidSyntaxException(() -> "Illegal operation: expected 'filter' or 'map', found '" + word + "\'", position);
         }
         if (!isEnd()) {
             if (!callChain.startsWith(CALLS_SEPARATOR, curPointer)) {
-                throw new InvalidSyntaxException("Illegal symbol: expected " + CALLS_SEPARATOR + ", found " + callChain.charAt(curPointer));
+                char symbol = callChain.charAt(curPointer);
+                throw new InvalidSyntaxException(() -> "Illegal symbol: expected " + CALLS_SEPARATOR + ", found " + symbol, curPointer);
             }
             curPointer += CALLS_SEPARATOR.length();
             if (isEnd()) {
-                throw new InvalidSyntaxException("After " + CALLS_SEPARATOR + " expected <call>, found the end");
+                throw new InvalidSyntaxException("After " + CALLS_SEPARATOR + " expected <call>, found the end", curPointer);
             }
         }
         return result;
     }
 
     private Call tryParseCall(CallType callType, Class<?> operandsType) throws InvalidSyntaxException, InvalidTypeException {
-        if (callChain.startsWith(String.valueOf(callType).toLowerCase(), curPointer)) {
-            curPointer += String.valueOf(callType).length();
-            Expression expr = exprParser.parse(getExpression(callType));
-            if (!operandsType.isAssignableFrom(expr.getClass())) {
-                throw new InvalidTypeException("Illegal type of operand <" + expr.toString() + "> of function " + String.valueOf(callType).toLowerCase());
+        if (callChain.startsWith(callType.getName(), curPointer)) {
+            curPointer += callType.getName().length();
+            int beginIndex = getExpressionBegin(callType);
+            int endIndex = getExpressionEnd(beginIndex);
+            Expression expr = exprParser.parse(callChain, beginIndex, endIndex);
+            curPointer = endIndex + 1;
+            if (!operandsType.isInstance(expr)) {
+                throw new InvalidTypeException(() -> "Illegal type of operand <" + expr.toString() + "> of function "
+                        + callType.getName(), beginIndex);
             }
             return new Call(callType, expr);
         }
         return null;
     }
 
-    private String getExpression(CallType callType) throws InvalidSyntaxException {
-        if (isEnd() || !callChain.startsWith(EXPR_START, curPointer)) {
-            throw new InvalidSyntaxException("After <" + String.valueOf(callType).toLowerCase() + "> expression in format '{ <expression> }' was expected");
-        }
-        int beginIndex = ++curPointer;
-        while (curPointer < callChain.length() && !callChain.startsWith(EXPR_END, curPointer)) {
-            curPointer++;
+    private int getExpressionBegin(CallType callType) throws InvalidSyntaxException {
+        if (isEnd() || callChain.charAt(curPointer) != EXPR_START) {
+            throw new InvalidSyntaxException(() -> "After <" + callType.getName() + "> expression in format '{ <expression> }' was expected",
+                    curPointer);
         }
-        if (curPointer == callChain.length()) {
-            throw new InvalidSyntaxException("Expression <" + callChain.substring(beginIndex, curPointer) + "> must end with '" + EXPR_END + '\'');
+        return curPointer + 1;
+    }
+
+    private int getExpressionEnd(int beginIndex) throws InvalidSyntaxException {
+        int endIndex = callChain.indexOf(EXPR_END, beginIndex);
+        if (endIndex < 0) {
+            throw new InvalidSyntaxException(() -> "Expression <" + callChain.substring(beginIndex) + "> must end with '" + EXPR_END + '\'',
+                    beginIndex);
         }
-        return callChain.substring(beginIndex, curPointer++);
+        return endIndex;
     }
 
     private boolean isEnd() {
         return curPointer >= callChain.length();
     }
 
-    private static String getCallString(Call call) {
-        return call.getCallName() + EXPR_START + call.getExpression().toString() + EXPR_END;
+    private static void writeCall(Call call, Appendable out) throws IOException {
+        out.append(call.getCallName()).append(EXPR_START);
+        ExpressionWriter.write(call.getExpression(), out);
+        out.append(EXPR_END);
     }
 
     public static String joinCalls(Call first, Call second) {
-        return getCallString(first) + CALLS_SEPARATOR + getCallString(second);
+        try {
+            return writeCalls(first, second, new StringBuilder()).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes calls in format <call> "%>%" <call> straight into {@code out} without intermediate strings.
+     *
+     * @param first  the first {@link Call}
+     * @param second the second {@link Call}
+     * @param out    destination of the text
+     * @param <A>    type of the destination
+     * @return {@code out}
+     * @throws IOException if {@code out} fails
+     */
+    public static <A extends Appendable> A writeCalls(Call first, Call second, A out) throws IOException {
+        writeCall(first, out);
+        out.append(CALLS_SEPARATOR);
+        writeCall(second, out);
+        return out;
     }
 
     private String getWord() {
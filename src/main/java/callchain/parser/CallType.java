@@ -1,6 +1,16 @@
 package callchain.parser;
 
 public enum  CallType {
-    FILTER,
-    MAP
+    FILTER("filter"),
+    MAP("map");
+
+    private final String name;
+
+    CallType(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
 }
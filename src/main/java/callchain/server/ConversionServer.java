@@ -0,0 +1,348 @@
+package callchain.server;
+
+import callchain.converter.ConversionResult;
+import callchain.converter.Converter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves conversions to local clients, so one warmed up JVM and {@link Converter} are shared by all of them.
+ * The server listens on a loopback TCP port or on a Unix domain socket (JDK 17+), and every connection is served
+ * by its own virtual thread on JDK 21+ or by a thread of a cached pool on older JDKs.
+ * <p>
+ * Requests and responses are length-prefixed, all integers are big-endian:
+ * <ul>
+ * <li>request is {@code int} length followed by UTF-8 bytes of <call-chain>;</li>
+ * <li>response is status byte, {@code int} length and UTF-8 bytes of the converted chain or of the error message.</li>
+ * </ul>
+ * Clients may send many requests without waiting for responses, they are answered in order, and responses
+ * are flushed once all received requests of the connection are answered. At most {@code concurrency}
+ * conversions run at once, others wait for a permit.
+ */
+public final class ConversionServer implements AutoCloseable {
+
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_SYNTAX_ERROR = 1;
+    public static final int STATUS_TYPE_ERROR = 2;
+    public static final int STATUS_ERROR = 3;
+    public static final int STATUS_BUDGET_EXCEEDED = 4;
+
+    /**
+     * Requests are rejected and their connections are closed beyond this length.
+     */
+    public static final int MAX_REQUEST_LENGTH = 1 << 24;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ServerSocketChannel serverChannel;
+    private final Path socketPath;
+    private final Converter converter;
+    private final Semaphore permits;
+    private final Executor connectionExecutor;
+    private final boolean virtualThreads;
+    private final Thread acceptor;
+
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder requests = new LongAdder();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private ConversionServer(ServerSocketChannel serverChannel, Path socketPath, Converter converter, int concurrency) {
+        this.serverChannel = serverChannel;
+        this.socketPath = socketPath;
+        this.converter = converter;
+        permits = new Semaphore(concurrency);
+        ThreadFactory virtualFactory = VirtualThreads.FACTORY;
+        virtualThreads = virtualFactory != null;
+        connectionExecutor = virtualThreads
+                ? task -> virtualFactory.newThread(task).start()
+                : Executors.newCachedThreadPool(new ConnectionThreadFactory());
+        acceptor = new Thread(this::acceptConnections, "conversion-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Starts the server on the loopback TCP port.
+     *
+     * @param port        port to listen on, {@code 0} selects a free port
+     * @param converter   {@link Converter} shared by all connections
+     * @param concurrency maximum number of conversions running at once
+     * @return started server
+     * @throws IOException if the port can not be bound
+     */
+    public static ConversionServer bind(int port, Converter converter, int concurrency) throws IOException {
+        checkConcurrency(concurrency);
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new ConversionServer(channel, null, converter, concurrency);
+    }
+
+    /**
+     * Starts the server on the Unix domain socket, the socket file is deleted on {@link #close()}.
+     *
+     * @param path        path of the socket file, it must not exist
+     * @param converter   {@link Converter} shared by all connections
+     * @param concurrency maximum number of conversions running at once
+     * @return started server
+     * @throws IOException                   if the socket can not be bound
+     * @throws UnsupportedOperationException if Unix domain sockets are not supported by the JDK
+     */
+    public static ConversionServer bind(Path path, Converter converter, int concurrency) throws IOException {
+        checkConcurrency(concurrency);
+        MethodHandle bind = UnixSockets.BIND;
+        if (bind == null) {
+            throw new UnsupportedOperationException("Unix domain sockets require JDK 17+");
+        }
+        ServerSocketChannel channel;
+        try {
+            channel = (ServerSocketChannel) bind.invoke(path);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return new ConversionServer(channel, path, converter, concurrency);
+    }
+
+    private static void checkConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+    }
+
+    public SocketAddress getLocalAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * @return {@code true} if connections are served by virtual threads
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @return number of answered requests
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * @return number of accepted connections
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Waits until the server is closed.
+     */
+    public void join() throws InterruptedException {
+        acceptor.join();
+    }
+
+    private void acceptConnections() {
+        while (serverChannel.isOpen()) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                return;
+            }
+            connections.add(channel);
+            connectionCount.incrementAndGet();
+            try {
+                connectionExecutor.execute(() -> serve(channel));
+            } catch (RejectedExecutionException e) {
+                closeConnection(channel);
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try {
+            if (channel.supportedOptions().contains(StandardSocketOptions.TCP_NODELAY)) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            int length;
+            while ((length = readLength(in)) >= 0) {
+                if (length > MAX_REQUEST_LENGTH) {
+                    throw new IOException("Request of " + length + " bytes is too long");
+                }
+                byte[] request = new byte[length];
+                in.readFully(request);
+                respond(new String(request, StandardCharsets.UTF_8), out);
+                requests.increment();
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            // the client has gone or the server is closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeConnection(channel);
+        }
+    }
+
+    /**
+     * @return length of the next request or {@code -1} if the client has finished
+     */
+    private static int readLength(DataInputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return -1;
+        }
+        return first << 24 | in.readUnsignedByte() << 16 | in.readUnsignedShort();
+    }
+
+    private void respond(String callChain, DataOutputStream out) throws IOException, InterruptedException {
+        int status;
+        String response;
+        permits.acquire();
+        try {
+            ConversionResult result = converter.tryConvert(callChain);
+            if (result.isSuccess()) {
+                status = STATUS_OK;
+                response = result.getValue();
+            } else {
+                status = statusOf(result.getErrorKind());
+                response = result.getErrorMessage();
+            }
+        } catch (RuntimeException e) {
+            status = STATUS_ERROR;
+            response = e.toString();
+        } finally {
+            permits.release();
+        }
+        byte[] bytes = String.valueOf(response).getBytes(StandardCharsets.UTF_8);
+        out.writeByte(status);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static int statusOf(ConversionResult.ErrorKind kind) {
+        switch (kind) {
+            case SYNTAX:
+                return STATUS_SYNTAX_ERROR;
+            case TYPE:
+                return STATUS_TYPE_ERROR;
+            default:
+                return STATUS_BUDGET_EXCEEDED;
+        }
+    }
+
+    private void closeConnection(SocketChannel channel) {
+        connections.remove(channel);
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // nothing to do with the closed connection
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones. Requests in progress are not answered.
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (SocketChannel channel : connections) {
+            closeConnection(channel);
+        }
+        if (connectionExecutor instanceof ExecutorService) {
+            ((ExecutorService) connectionExecutor).shutdown();
+        }
+        if (socketPath != null) {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    /**
+     * Looks for virtual threads of JDK 21+ once.
+     */
+    private static final class VirtualThreads {
+        private static final ThreadFactory FACTORY = findFactory();
+
+        private static ThreadFactory findFactory() {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                Class<?> builder = Class.forName("java.lang.Thread$Builder");
+                Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+                Object threads = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtual)).invoke();
+                threads = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class, long.class))
+                        .invoke(threads, "conversion-connection-", 1L);
+                return (ThreadFactory) lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class))
+                        .invoke(threads);
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Looks for {@code UnixDomainSockets} from the Java 17 part of the multi-release build once.
+     */
+    private static final class UnixSockets {
+        private static final String CLASS_NAME = "callchain.server.UnixDomainSockets";
+
+        private static final MethodHandle BIND = findBind();
+
+        private static MethodHandle findBind() {
+            try {
+                return MethodHandles.lookup().findStatic(Class.forName(CLASS_NAME), "bind",
+                        MethodType.methodType(ServerSocketChannel.class, Path.class));
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return null;
+            }
+        }
+    }
+
+    private static class ConnectionThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "conversion-connection-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package exceptions;
+
+/**
+ * Thrown when a conversion exceeds one of its limits of work or is cancelled.
+ * It is unchecked, since it is thrown deep inside of simplification of expressions and polynomials,
+ * and stackless, since exceeded budgets are expected under load.
+ */
+public class BudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Limit {
+        NODES,
+        DEGREE,
+        DEADLINE,
+        CANCELLED
+    }
+
+    private final Limit limit;
+
+    public BudgetExceededException(Limit limit, String message) {
+        super(message, null, false, false);
+        this.limit = limit;
+    }
+
+    /**
+     * @return the exceeded limit
+     */
+    public Limit getLimit() {
+        return limit;
+    }
+}
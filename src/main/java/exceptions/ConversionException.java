@@ -0,0 +1,59 @@
+package exceptions;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.function.Supplier;
+
+/**
+ * Base of errors of conversion. Malformed chains are expected input, so the exceptions are stackless,
+ * and their messages are formatted only when they are requested or the exception is serialized.
+ */
+public abstract class ConversionException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient Supplier<String> messageSupplier;
+    private String message;
+    private final int position;
+
+    protected ConversionException(String message) {
+        this(message, -1);
+    }
+
+    protected ConversionException(String message, int position) {
+        super(null, null, false, false);
+        this.message = message;
+        this.position = position;
+    }
+
+    /**
+     * @param messageSupplier formats the message once it is requested
+     * @param position        index in the input where the error is found, or {@code -1} if it is unknown
+     */
+    protected ConversionException(Supplier<String> messageSupplier, int position) {
+        super(null, null, false, false);
+        this.messageSupplier = messageSupplier;
+        this.position = position;
+    }
+
+    @Override
+    public synchronized String getMessage() {
+        if (messageSupplier != null) {
+            message = messageSupplier.get();
+            messageSupplier = null;
+        }
+        return message;
+    }
+
+    /**
+     * @return index in the input where the error is found, or {@code -1} if it is unknown
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        getMessage();
+        out.defaultWriteObject();
+    }
+}
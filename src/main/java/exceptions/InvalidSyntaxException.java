@@ -1,9 +1,21 @@
 package exceptions;
 
-public class InvalidSyntaxException extends Exception {
+import java.util.function.Supplier;
+
+public class InvalidSyntaxException extends ConversionException {
+
+    private static final long serialVersionUID = 1L;
 
     public InvalidSyntaxException(String message) {
         super(message);
     }
 
+    public InvalidSyntaxException(String message, int position) {
+        super(message, position);
+    }
+
+    public InvalidSyntaxException(Supplier<String> messageSupplier, int position) {
+        super(messageSupplier, position);
+    }
+
 }
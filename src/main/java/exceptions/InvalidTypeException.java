@@ -1,9 +1,21 @@
 package exceptions;
 
-public class InvalidTypeException extends Exception {
+import java.util.function.Supplier;
+
+public class InvalidTypeException extends ConversionException {
+
+    private static final long serialVersionUID = 1L;
 
     public InvalidTypeException(String message) {
         super(message);
     }
 
+    public InvalidTypeException(String message, int position) {
+        super(message, position);
+    }
+
+    public InvalidTypeException(Supplier<String> messageSupplier, int position) {
+        super(messageSupplier, position);
+    }
+
 }
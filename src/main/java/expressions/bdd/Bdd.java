@@ -0,0 +1,200 @@
+package expressions.bdd;
+
+import expressions.types.Budget;
+
+import java.util.Arrays;
+
+/**
+ * Manager of reduced ordered binary decision diagrams.
+ * Nodes are identified by {@code int} indices and stored in parallel arrays,
+ * the unique table guarantees that equal functions are represented by the same node,
+ * so equivalence of functions is checked by comparison of indices.
+ * Results of operations are remembered in a direct-mapped cache.
+ */
+final class Bdd {
+
+    static final int FALSE = 0;
+    static final int TRUE = 1;
+
+    /**
+     * Variable of terminal nodes, it is greater than every variable.
+     */
+    private static final int TERMINAL = Integer.MAX_VALUE;
+
+    private static final int AND = 0;
+    private static final int OR = 1;
+    private static final int NOT = 2;
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int CACHE_SIZE = 1 << 14;
+
+    private int[] vars = new int[INITIAL_CAPACITY];
+    private int[] lows = new int[INITIAL_CAPACITY];
+    private int[] highs = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Open addressing hash table of node indices increased by one, {@code 0} marks an empty slot.
+     */
+    private int[] uniqueTable = new int[2 * INITIAL_CAPACITY];
+
+    private final long[] cacheKeys = new long[CACHE_SIZE];
+    private final int[] cacheOperations = new int[CACHE_SIZE];
+    private final int[] cacheResults = new int[CACHE_SIZE];
+
+    Bdd() {
+        Arrays.fill(cacheOperations, -1);
+        vars[FALSE] = TERMINAL;
+        vars[TRUE] = TERMINAL;
+        size = 2;
+    }
+
+    /**
+     * @return node of function which is true iff variable {@code var} is true
+     */
+    int variable(int var) {
+        return node(var, FALSE, TRUE);
+    }
+
+    int var(int node) {
+        return vars[node];
+    }
+
+    int low(int node) {
+        return lows[node];
+    }
+
+    int high(int node) {
+        return highs[node];
+    }
+
+    int and(int a, int b) {
+        if (a == FALSE || b == FALSE) {
+            return FALSE;
+        }
+        if (a == TRUE || a == b) {
+            return b;
+        }
+        if (b == TRUE) {
+            return a;
+        }
+        return apply(AND, Math.min(a, b), Math.max(a, b));
+    }
+
+    int or(int a, int b) {
+        if (a == TRUE || b == TRUE) {
+            return TRUE;
+        }
+        if (a == FALSE || a == b) {
+            return b;
+        }
+        if (b == FALSE) {
+            return a;
+        }
+        return apply(OR, Math.min(a, b), Math.max(a, b));
+    }
+
+    int not(int a) {
+        if (a <= TRUE) {
+            return TRUE - a;
+        }
+        int slot = cacheSlot(NOT, a, a);
+        long key = cacheKey(a, a);
+        if (cacheOperations[slot] == NOT && cacheKeys[slot] == key) {
+            return cacheResults[slot];
+        }
+        int result = node(vars[a], not(lows[a]), not(highs[a]));
+        putCache(slot, NOT, key, result);
+        return result;
+    }
+
+    /**
+     * Shannon expansion of binary operation by the least variable of the operands.
+     */
+    private int apply(int operation, int a, int b) {
+        int slot = cacheSlot(operation, a, b);
+        long key = cacheKey(a, b);
+        if (cacheOperations[slot] == operation && cacheKeys[slot] == key) {
+            return cacheResults[slot];
+        }
+        int var = Math.min(vars[a], vars[b]);
+        int aLow = vars[a] == var ? lows[a] : a;
+        int aHigh = vars[a] == var ? highs[a] : a;
+        int bLow = vars[b] == var ? lows[b] : b;
+        int bHigh = vars[b] == var ? highs[b] : b;
+        int result = operation == AND
+                ? node(var, and(aLow, bLow), and(aHigh, bHigh))
+                : node(var, or(aLow, bLow), or(aHigh, bHigh));
+        putCache(slot, operation, key, result);
+        return result;
+    }
+
+    /**
+     * Finds or creates the node testing {@code var}, reduced if both branches are equal.
+     */
+    private int node(int var, int low, int high) {
+        if (low == high) {
+            return low;
+        }
+        int mask = uniqueTable.length - 1;
+        for (int slot = hash(var, low, high) & mask; ; slot = (slot + 1) & mask) {
+            int node = uniqueTable[slot] - 1;
+            if (node < 0) {
+                break;
+            }
+            if (vars[node] == var && lows[node] == low && highs[node] == high) {
+                return node;
+            }
+        }
+        Budget.countNode();
+        if (size == vars.length) {
+            grow();
+        }
+        int node = size++;
+        vars[node] = var;
+        lows[node] = low;
+        highs[node] = high;
+        insert(node);
+        return node;
+    }
+
+    private void grow() {
+        int capacity = 2 * vars.length;
+        vars = Arrays.copyOf(vars, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        uniqueTable = new int[2 * capacity];
+        for (int node = 2; node < size; node++) {
+            insert(node);
+        }
+    }
+
+    private void insert(int node) {
+        int mask = uniqueTable.length - 1;
+        int slot = hash(vars[node], lows[node], highs[node]) & mask;
+        while (uniqueTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        uniqueTable[slot] = node + 1;
+    }
+
+    private static int hash(int var, int low, int high) {
+        int h = var * 0x9E3779B9 + low;
+        h = h * 0x9E3779B9 + high;
+        return h ^ (h >>> 16);
+    }
+
+    private static long cacheKey(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    private static int cacheSlot(int operation, int a, int b) {
+        return hash(operation, a, b) & (CACHE_SIZE - 1);
+    }
+
+    private void putCache(int slot, int operation, long key, int result) {
+        cacheOperations[slot] = operation;
+        cacheKeys[slot] = key;
+        cacheResults[slot] = result;
+    }
+}
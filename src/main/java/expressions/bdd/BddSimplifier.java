@@ -0,0 +1,236 @@
+package expressions.bdd;
+
+import expressions.types.ArithmeticExpression;
+import expressions.types.LogicalExpression;
+import expressions.types.operations.And;
+import expressions.types.operations.BoolOperation;
+import expressions.types.operations.ComparisonOperation;
+import expressions.types.operations.IntervalSet;
+import expressions.types.operations.Or;
+import expressions.types.primitives.Bool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Simplifies {@link LogicalExpression} through its binary decision diagram.
+ * Every simplified comparison restricts values of its left operand to an {@link IntervalSet}, so it is expressed
+ * with threshold variables {@code operand < t}. Variables of the same operand are adjacent and ordered by threshold,
+ * and the domain constraint {@code (operand < t1) -> (operand < t2)} for {@code t1 < t2} is added to the diagram.
+ * The canonical diagram is rendered back as a disjunction of intervals of the first operand
+ * combined with rendered sub-diagrams of the other operands.
+ */
+public final class BddSimplifier {
+
+    private final Bdd bdd = new Bdd();
+
+    /**
+     * Thresholds of every operand in order of the first appearance, sorted in ascending order.
+     */
+    private final Map<ArithmeticExpression, int[]> thresholds = new LinkedHashMap<>();
+
+    /**
+     * Index of the first variable of every operand.
+     */
+    private final Map<ArithmeticExpression, Integer> firstVariables = new HashMap<>();
+
+    private ArithmeticExpression[] operandByVariable;
+
+    private final Map<LogicalExpression, Object> atoms = new IdentityHashMap<>();
+
+    private BddSimplifier() {
+    }
+
+    /**
+     * Simplifies {@code expression} to the canonical form. Tautologies and contradictions are reduced to {@link Bool}.
+     *
+     * @param expression {@link LogicalExpression} to simplify
+     * @return simplified equivalent {@link LogicalExpression}
+     */
+    public static LogicalExpression simplify(LogicalExpression expression) {
+        return new BddSimplifier().simplifyImpl(expression);
+    }
+
+    private LogicalExpression simplifyImpl(LogicalExpression expression) {
+        Map<ArithmeticExpression, TreeSet<Integer>> collected = new LinkedHashMap<>();
+        collectAtoms(expression, collected);
+        int variables = 0;
+        for (Map.Entry<ArithmeticExpression, TreeSet<Integer>> entry : collected.entrySet()) {
+            int[] operandThresholds = new int[entry.getValue().size()];
+            int k = 0;
+            for (int threshold : entry.getValue()) {
+                operandThresholds[k++] = threshold;
+            }
+            thresholds.put(entry.getKey(), operandThresholds);
+            firstVariables.put(entry.getKey(), variables);
+            variables += operandThresholds.length;
+        }
+        operandByVariable = new ArithmeticExpression[variables];
+        for (Map.Entry<ArithmeticExpression, int[]> entry : thresholds.entrySet()) {
+            Arrays.fill(operandByVariable, firstVariables.get(entry.getKey()),
+                    firstVariables.get(entry.getKey()) + entry.getValue().length, entry.getKey());
+        }
+
+        int domain = domain(variables);
+        int function = bdd.and(build(expression, new IdentityHashMap<>()), domain);
+        if (function == Bdd.FALSE) {
+            return Bool.of(false);
+        }
+        if (function == domain) {
+            return Bool.of(true);
+        }
+        return render(function, new HashMap<>());
+    }
+
+    /**
+     * Simplifies every comparison of the expression and collects thresholds of its operand.
+     */
+    private void collectAtoms(LogicalExpression expression, Map<ArithmeticExpression, TreeSet<Integer>> collected) {
+        if (atoms.containsKey(expression)) {
+            return;
+        }
+        if (expression instanceof BoolOperation) {
+            BoolOperation operation = (BoolOperation) expression;
+            collectAtoms(operation.getLeft(), collected);
+            collectAtoms(operation.getRight(), collected);
+            atoms.put(expression, null);
+        } else if (expression instanceof ComparisonOperation) {
+            LogicalExpression simplified = ((ComparisonOperation) expression).simplify();
+            atoms.put(expression, simplified);
+            if (simplified instanceof ComparisonOperation) {
+                ComparisonOperation comparison = (ComparisonOperation) simplified;
+                IntervalSet values = comparison.getValues();
+                TreeSet<Integer> operandThresholds = collected.computeIfAbsent(comparison.getLeft(), operand -> new TreeSet<>());
+                for (int i = 0; i < values.size(); i++) {
+                    if (values.getFrom(i) != Integer.MIN_VALUE) {
+                        operandThresholds.add(values.getFrom(i));
+                    }
+                    if (values.getTo(i) != Integer.MAX_VALUE) {
+                        operandThresholds.add(values.getTo(i) + 1);
+                    }
+                }
+            }
+        } else if (!(expression instanceof Bool)) {
+            throw new IllegalArgumentException("Unsupported logical expression " + expression);
+        }
+    }
+
+    private int build(LogicalExpression expression, Map<LogicalExpression, Integer> built) {
+        if (expression instanceof Bool) {
+            return ((Bool) expression).isTrue() ? Bdd.TRUE : Bdd.FALSE;
+        }
+        Integer result = built.get(expression);
+        if (result != null) {
+            return result;
+        }
+        int node;
+        if (expression instanceof BoolOperation) {
+            BoolOperation operation = (BoolOperation) expression;
+            int left = build(operation.getLeft(), built);
+            int right = build(operation.getRight(), built);
+            node = operation instanceof And ? bdd.and(left, right) : bdd.or(left, right);
+        } else {
+            LogicalExpression simplified = (LogicalExpression) atoms.get(expression);
+            if (simplified instanceof Bool) {
+                node = build(simplified, built);
+            } else {
+                ComparisonOperation comparison = (ComparisonOperation) simplified;
+                node = values(comparison.getLeft(), comparison.getValues());
+            }
+        }
+        built.put(expression, node);
+        return node;
+    }
+
+    /**
+     * @return node of function which is true iff value of {@code operand} is in {@code values}
+     */
+    private int values(ArithmeticExpression operand, IntervalSet values) {
+        int result = Bdd.FALSE;
+        for (int i = 0; i < values.size(); i++) {
+            int from = values.getFrom(i);
+            int to = values.getTo(i);
+            int lower = from == Integer.MIN_VALUE ? Bdd.TRUE : bdd.not(bdd.variable(variable(operand, from)));
+            int upper = to == Integer.MAX_VALUE ? Bdd.TRUE : bdd.variable(variable(operand, to + 1));
+            result = bdd.or(result, bdd.and(lower, upper));
+        }
+        return result;
+    }
+
+    /**
+     * @return variable {@code operand < threshold}
+     */
+    private int variable(ArithmeticExpression operand, int threshold) {
+        return firstVariables.get(operand) + Arrays.binarySearch(thresholds.get(operand), threshold);
+    }
+
+    /**
+     * Builds conjunction of {@code (operand < t[i]) -> (operand < t[i + 1])} for all operands, starting from the last
+     * variable, so every intermediate diagram has a linear size.
+     */
+    private int domain(int variables) {
+        int result = Bdd.TRUE;
+        for (int var = variables - 2; var >= 0; var--) {
+            if (operandByVariable[var] == operandByVariable[var + 1]) {
+                int implication = bdd.or(bdd.not(bdd.variable(var)), bdd.variable(var + 1));
+                result = bdd.and(implication, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Renders the diagram as a disjunction of {@code (operand in S) & rendered(child)}, where {@code operand} is tested
+     * at the root, and {@code S} is the set of values leading to the same child diagram.
+     * Sets are ordered by their highest values in descending order.
+     */
+    private LogicalExpression render(int node, Map<Integer, LogicalExpression> rendered) {
+        if (node == Bdd.TRUE || node == Bdd.FALSE) {
+            return Bool.of(node == Bdd.TRUE);
+        }
+        LogicalExpression result = rendered.get(node);
+        if (result != null) {
+            return result;
+        }
+        ArithmeticExpression operand = operandByVariable[bdd.var(node)];
+        int[] operandThresholds = thresholds.get(operand);
+        int first = firstVariables.get(operand);
+        Map<Integer, List<IntervalSet>> regionsByChild = new LinkedHashMap<>();
+        for (int region = operandThresholds.length; region >= 0; region--) {
+            int child = node;
+            while (child > Bdd.TRUE && bdd.var(child) < first + operandThresholds.length) {
+                child = bdd.var(child) - first >= region ? bdd.high(child) : bdd.low(child);
+            }
+            int from = region == 0 ? Integer.MIN_VALUE : operandThresholds[region - 1];
+            int to = region == operandThresholds.length ? Integer.MAX_VALUE : operandThresholds[region] - 1;
+            regionsByChild.computeIfAbsent(child, c -> new ArrayList<>()).add(IntervalSet.of(from, to));
+        }
+        for (Map.Entry<Integer, List<IntervalSet>> entry : regionsByChild.entrySet()) {
+            if (entry.getKey() == Bdd.FALSE) {
+                continue;
+            }
+            IntervalSet values = IntervalSet.union(entry.getValue());
+            LogicalExpression child = render(entry.getKey(), rendered);
+            LogicalExpression term;
+            if (values.equals(IntervalSet.ALL)) {
+                term = child;
+            } else if (child instanceof Bool) {
+                term = values.toExpression(operand);
+            } else {
+                term = And.of(values.toExpression(operand), child);
+            }
+            result = result == null ? term : Or.of(result, term);
+        }
+        if (result == null) {
+            result = Bool.of(false);
+        }
+        rendered.put(node, result);
+        return result;
+    }
+}
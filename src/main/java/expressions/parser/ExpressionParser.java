@@ -1,111 +1,302 @@
 package expressions.parser;
 
+import exceptions.ConversionException;
 import exceptions.InvalidSyntaxException;
 import exceptions.InvalidTypeException;
-import expressions.types.LogicalExpression;
-import expressions.types.operations.*;
 import expressions.types.ArithmeticExpression;
 import expressions.types.Expression;
+import expressions.types.LogicalExpression;
+import expressions.types.operations.*;
 import expressions.types.primitives.Const;
 import expressions.types.primitives.Element;
 
+import java.util.function.Supplier;
+
+/**
+ * Recursive descent parser of <expression>.
+ * Characters are read directly from the input {@link CharSequence} and classified with a lookup table,
+ * error messages are built only when an error is found.
+ * Malformed expressions are checked again by {@link ExpressionValidator} to report their first error.
+ */
 public class ExpressionParser {
-    private Tokenizer tokenizer;
+
+    private static final String ELEMENT = "element";
+
+    private static final byte OTHER = 0;
+    private static final byte DIGIT = 1;
+    private static final byte LETTER = 2;
+    private static final byte OPERATION = 3;
+    private static final byte OPEN_BRACE = 4;
+    private static final byte CLOSE_BRACE = 5;
+
+    private static final byte[] charClasses = new byte[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            charClasses[c] = DIGIT;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            charClasses[c] = LETTER;
+            charClasses[Character.toUpperCase(c)] = LETTER;
+        }
+        for (char c : "+-*<>=&|".toCharArray()) {
+            charClasses[c] = OPERATION;
+        }
+        charClasses['('] = OPEN_BRACE;
+        charClasses[')'] = CLOSE_BRACE;
+    }
+
+    private CharSequence input;
+    private int begin;
+    private int end;
+    private int pointer;
 
     public Expression parse(String expression) throws InvalidSyntaxException, InvalidTypeException {
-        tokenizer = new Tokenizer(expression);
-        return parseBinaryOperation();
+        return parse(expression, 0, expression.length());
     }
 
-    private Expression parsePrimitive() throws InvalidSyntaxException, InvalidTypeException {
-        Expression result = null;
-        switch (tokenizer.getNextToken()) {
-            case ELEMENT: {
-                result = new Element();
-                tokenizer.getNextToken();
-                break;
-            }
-            case NUMBER: {
-                result = new Const(tokenizer.getValue());
-                tokenizer.getNextToken();
-                break;
-            }
-            case OPEN_BRACE: {
-                result = parseBinaryOperation();
-                tokenizer.getNextToken();
-                break;
+    /**
+     * Parses <expression> located in {@code input} between {@code begin} (inclusive) and {@code end} (exclusive).
+     *
+     * @param input source of characters
+     * @param begin index of the first character of expression
+     * @param end   index after the last character of expression
+     * @return parsed {@link Expression}
+     * @throws InvalidSyntaxException if expression is in invalid format
+     * @throws InvalidTypeException   if operand type of some operation is wrong
+     */
+    public Expression parse(CharSequence input, int begin, int end) throws InvalidSyntaxException, InvalidTypeException {
+        this.input = input;
+        this.begin = begin;
+        this.end = end;
+        pointer = begin;
+        try {
+            Expression result = parseOperand();
+            if (pointer != end) {
+                throw bracesError();
             }
+            return result;
+        } catch (InvalidSyntaxException e) {
+            throw firstError(e);
+        } catch (InvalidTypeException e) {
+            throw firstError(e);
         }
-        return result;
     }
 
-    private Expression parseBinaryOperation() throws InvalidSyntaxException, InvalidTypeException {
-        Expression left = parsePrimitive();
-        while (true) {
-            switch (tokenizer.getCurrentToken()) {
-                case ADD: {
-                    Expression right = parsePrimitive();
-                    checkOperandsTypes(left, right, ArithmeticExpression.class);
-                    left = new Add((ArithmeticExpression) left, (ArithmeticExpression) right);
-                    break;
-                }
-                case SUBTRACT: {
-                    Expression right = parsePrimitive();
-                    checkOperandsTypes(left, right, ArithmeticExpression.class);
-                    left = new Subtract((ArithmeticExpression) left, (ArithmeticExpression) right);
-                    break;
-                }
-                case MULTIPLY: {
-                    Expression right = parsePrimitive();
-                    checkOperandsTypes(left, right, ArithmeticExpression.class);
-                    left = new Multiply((ArithmeticExpression) left, (ArithmeticExpression) right);
-                    break;
-                }
-                case GREATER: {
-                    Expression right = parsePrimitive();
-                    checkOperandsTypes(left, right, ArithmeticExpression.class);
-                    left = new Greater((ArithmeticExpression) left, (ArithmeticExpression) right);
-                    break;
-                }
-                case LESS: {
-                    Expression right = parsePrimitive();
-                    checkOperandsTypes(left, right, ArithmeticExpression.class);
-                    left = new Less((ArithmeticExpression) left, (ArithmeticExpression) right);
-                    break;
-                }
-                case EQUALS: {
-                    Expression right = parsePrimitive();
-                    checkOperandsTypes(left, right, ArithmeticExpression.class);
-                    left = new Equals((ArithmeticExpression) left, (ArithmeticExpression) right);
-                    break;
-                }
-                case AND: {
-                    Expression right = parsePrimitive();
-                    checkOperandsTypes(left, right, LogicalExpression.class);
-                    left = new And((LogicalExpression) left, (LogicalExpression) right);
-                    break;
+    /**
+     * Replaces the error found while parsing with the one {@link ExpressionValidator} finds first,
+     * so errors are reported in the order of tokens, and syntax errors before the end of the operation
+     * are not hidden by type errors.
+     */
+    private <E extends ConversionException> E firstError(E found) throws InvalidSyntaxException, InvalidTypeException {
+        ConversionException error = ExpressionValidator.findError(input, begin, end);
+        if (error instanceof InvalidSyntaxException) {
+            throw (InvalidSyntaxException) error;
+        }
+        if (error instanceof InvalidTypeException) {
+            throw (InvalidTypeException) error;
+        }
+        return found;
+    }
+
+    private Expression parseOperand() throws InvalidSyntaxException, InvalidTypeException {
+        if (pointer == end) {
+            throw primitiveExpectedError();
+        }
+        char symbol = input.charAt(pointer);
+        switch (classOf(symbol)) {
+            case DIGIT:
+                return Const.of(parseNumber(false));
+            case LETTER:
+                return parseElement();
+            case OPEN_BRACE:
+                pointer++;
+                return parseBinaryOperation();
+            case OPERATION:
+                if (symbol == '-') {
+                    pointer++;
+                    if (pointer == end || classOf(input.charAt(pointer)) != DIGIT) {
+                        Supplier<String> expression = expression();
+                        int position = pointer - begin;
+                        String found = pointer == end ? "the end" : "<" + input.charAt(pointer) + ">";
+                        throw new InvalidSyntaxException(() -> "After unary minus at position " + position +
+                                " in expression <" + expression.get() + "> number was expected, found " + found, pointer);
+                    }
+                    return Const.of(parseNumber(true));
                 }
-                case OR: {
-                    Expression right = parsePrimitive();
-                    checkOperandsTypes(left, right, LogicalExpression.class);
-                    left = new Or((LogicalExpression) left, (LogicalExpression) right);
-                    break;
+                throw primitiveExpectedError();
+            case CLOSE_BRACE:
+                throw primitiveExpectedError();
+            default:
+                throw illegalSymbolError(symbol);
+        }
+    }
+
+    /**
+     * Parses the rest of binary expression after the open brace.
+     */
+    private Expression parseBinaryOperation() throws InvalidSyntaxException, InvalidTypeException {
+        Expression left = parseOperand();
+        char operation = nextSymbol();
+        if (classOf(operation) != OPERATION) {
+            throw bracesError();
+        }
+        pointer++;
+        Expression right = parseOperand();
+        char closeBrace = nextSymbol();
+        Expression result = createOperation(operation, left, right);
+        if (classOf(closeBrace) != CLOSE_BRACE) {
+            throw bracesError();
+        }
+        pointer++;
+        return result;
+    }
+
+    /**
+     * Returns the symbol right after the parsed operand, which must be either operation or close brace.
+     */
+    private char nextSymbol() throws InvalidSyntaxException {
+        if (pointer == end) {
+            Supplier<String> expression = expression();
+            throw new InvalidSyntaxException(() -> "Invalid braces arrangement: not enough close braces in the end of expression "
+                    + expression.get(), pointer);
+        }
+        char symbol = input.charAt(pointer);
+        switch (classOf(symbol)) {
+            case OPERATION:
+            case CLOSE_BRACE:
+                return symbol;
+            case DIGIT:
+            case OPEN_BRACE:
+                throw new InvalidSyntaxException("operation was expected", pointer);
+            case LETTER:
+                if (isElement()) {
+                    throw new InvalidSyntaxException("operation was expected", pointer);
                 }
-                default: {
-                    return left;
+                throw illegalSymbolError(symbol);
+            default:
+                throw illegalSymbolError(symbol);
+        }
+    }
+
+    private Expression createOperation(char operation, Expression left, Expression right) throws InvalidTypeException {
+        switch (operation) {
+            case '&':
+            case '|': {
+                checkOperandsTypes(left, right, LogicalExpression.class);
+                LogicalExpression leftOperand = (LogicalExpression) left;
+                LogicalExpression rightOperand = (LogicalExpression) right;
+                return operation == '&' ? And.of(leftOperand, rightOperand) : Or.of(leftOperand, rightOperand);
+            }
+            default: {
+                checkOperandsTypes(left, right, ArithmeticExpression.class);
+                ArithmeticExpression leftOperand = (ArithmeticExpression) left;
+                ArithmeticExpression rightOperand = (ArithmeticExpression) right;
+                switch (operation) {
+                    case '+':
+                        return Add.of(leftOperand, rightOperand);
+                    case '-':
+                        return Subtract.of(leftOperand, rightOperand);
+                    case '*':
+                        return Multiply.of(leftOperand, rightOperand);
+                    case '>':
+                        return Greater.of(leftOperand, rightOperand);
+                    case '<':
+                        return Less.of(leftOperand, rightOperand);
+                    default:
+                        return Equals.of(leftOperand, rightOperand);
                 }
             }
         }
     }
 
+    private int parseNumber(boolean minus) throws InvalidSyntaxException {
+        int beginIndex = pointer;
+        long limit = minus ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        boolean overflow = false;
+        while (pointer < end && classOf(input.charAt(pointer)) == DIGIT) {
+            if (!overflow) {
+                value = 10 * value + (input.charAt(pointer) - '0');
+                overflow = value > limit;
+            }
+            pointer++;
+        }
+        if (overflow) {
+            String number = input.subSequence(beginIndex, pointer).toString();
+            throw new InvalidSyntaxException(() -> "Integer overflow: number " + (minus ? "-" : "") + number + " is too large",
+                    beginIndex);
+        }
+        return (int) (minus ? -value : value);
+    }
+
+    private Expression parseElement() throws InvalidSyntaxException {
+        if (!isElement()) {
+            throw illegalSymbolError(input.charAt(pointer));
+        }
+        pointer += ELEMENT.length();
+        return Element.of();
+    }
+
+    /**
+     * Checks that the word starting at the current position is exactly {@code element}.
+     */
+    private boolean isElement() {
+        int wordEnd = pointer;
+        while (wordEnd < end && classOf(input.charAt(wordEnd)) == LETTER) {
+            wordEnd++;
+        }
+        if (wordEnd - pointer != ELEMENT.length()) {
+            return false;
+        }
+        for (int i = 0; i < ELEMENT.length(); i++) {
+            if (input.charAt(pointer + i) != ELEMENT.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte classOf(char symbol) {
+        return symbol < charClasses.length ? charClasses[symbol] : OTHER;
+    }
+
+    /**
+     * Returns supplier of the parsed expression, so errors copy it only if their messages are requested.
+     */
+    private Supplier<String> expression() {
+        CharSequence input = this.input;
+        int begin = this.begin;
+        int end = this.end;
+        return () -> input.subSequence(begin, end).toString();
+    }
+
+    private InvalidSyntaxException primitiveExpectedError() {
+        Supplier<String> expression = expression();
+        int position = pointer - begin;
+        return new InvalidSyntaxException(() -> "Before position " + position + " in expression <" + expression.get() +
+                "> primitive was expected", pointer);
+    }
+
+    private InvalidSyntaxException bracesError() {
+        Supplier<String> expression = expression();
+        return new InvalidSyntaxException(() -> "Invalid braces arrangement: every binary expression of expression + <"
+                + expression.get() + "> must be in braces", pointer);
+    }
+
+    private InvalidSyntaxException illegalSymbolError(char symbol) {
+        Supplier<String> expression = expression();
+        return new InvalidSyntaxException(() -> "Illegal symbol \'" + symbol + "\' in expression " + expression.get(), pointer);
+    }
+
     private void checkOperandsTypes(Expression left, Expression right, Class<?> operandsTypes) throws InvalidTypeException {
         checkOperandType(left, operandsTypes);
         checkOperandType(right, operandsTypes);
     }
 
     private void checkOperandType(Expression operand, Class<?> type) throws InvalidTypeException {
-        if (!type.isAssignableFrom(operand.getClass())) {
-            throw new InvalidTypeException("Incorrect type of operand " + operand.toString());
+        if (!type.isInstance(operand)) {
+            throw new InvalidTypeException(() -> "Incorrect type of operand " + operand.toString(), pointer);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,247 @@
+package expressions.parser;
+
+import exceptions.ConversionException;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import expressions.types.ArithmeticExpression;
+import expressions.types.Expression;
+import expressions.types.LogicalExpression;
+import expressions.types.operations.*;
+import expressions.types.primitives.Const;
+import expressions.types.primitives.Element;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Finds the error of malformed <expression> which {@link ExpressionParser} has rejected.
+ * Tokens are read and checked one by one, and operand types are checked once the token after the right operand
+ * is read, in the same order as the token-based parser did, so the same inputs give the same errors.
+ * It runs only after an error is found, so it is not optimized.
+ */
+final class ExpressionValidator {
+
+    private static final String ELEMENT = "element";
+
+    private enum Token {
+        BEGIN, NUMBER, ELEMENT, OPEN_BRACE, CLOSE_BRACE, OPERATION
+    }
+
+    private final int begin;
+    private final String expression;
+    private final boolean binaryExpression;
+
+    private Token token = Token.BEGIN;
+    private char operation;
+    private int pointer;
+    private int braceBalance;
+    private int value;
+    private final Deque<Integer> operandsNumber = new ArrayDeque<>();
+
+    private ExpressionValidator(CharSequence input, int begin, int end) {
+        this.begin = begin;
+        expression = input.subSequence(begin, end).toString();
+        binaryExpression = !ELEMENT.equals(expression) && !isInteger(expression);
+    }
+
+    /**
+     * @param input source of characters
+     * @param begin index of the first character of expression
+     * @param end   index after the last character of expression
+     * @return the first error of the expression or {@code null} if it is valid
+     */
+    static ConversionException findError(CharSequence input, int begin, int end) {
+        ExpressionValidator validator = new ExpressionValidator(input, begin, end);
+        try {
+            validator.parseBinaryOperation();
+            return null;
+        } catch (InvalidSyntaxException | InvalidTypeException e) {
+            return e;
+        }
+    }
+
+    private static boolean isInteger(String expression) {
+        try {
+            Integer.parseInt(expression);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private Expression parsePrimitive() throws InvalidSyntaxException, InvalidTypeException {
+        Expression result = null;
+        switch (nextToken()) {
+            case ELEMENT:
+                result = Element.of();
+                nextToken();
+                break;
+            case NUMBER:
+                result = Const.of(value);
+                nextToken();
+                break;
+            case OPEN_BRACE:
+                result = parseBinaryOperation();
+                nextToken();
+                break;
+            default:
+                break;
+        }
+        return result;
+    }
+
+    private Expression parseBinaryOperation() throws InvalidSyntaxException, InvalidTypeException {
+        Expression left = parsePrimitive();
+        while (token == Token.OPERATION) {
+            char current = operation;
+            Expression right = parsePrimitive();
+            left = createOperation(current, left, right);
+        }
+        return left;
+    }
+
+    private Expression createOperation(char operation, Expression left, Expression right) throws InvalidTypeException {
+        if (operation == '&' || operation == '|') {
+            checkOperandType(left, LogicalExpression.class);
+            checkOperandType(right, LogicalExpression.class);
+            return operation == '&'
+                    ? And.of((LogicalExpression) left, (LogicalExpression) right)
+                    : Or.of((LogicalExpression) left, (LogicalExpression) right);
+        }
+        checkOperandType(left, ArithmeticExpression.class);
+        checkOperandType(right, ArithmeticExpression.class);
+        ArithmeticExpression leftOperand = (ArithmeticExpression) left;
+        ArithmeticExpression rightOperand = (ArithmeticExpression) right;
+        switch (operation) {
+            case '+':
+                return Add.of(leftOperand, rightOperand);
+            case '-':
+                return Subtract.of(leftOperand, rightOperand);
+            case '*':
+                return Multiply.of(leftOperand, rightOperand);
+            case '>':
+                return Greater.of(leftOperand, rightOperand);
+            case '<':
+                return Less.of(leftOperand, rightOperand);
+            default:
+                return Equals.of(leftOperand, rightOperand);
+        }
+    }
+
+    private void checkOperandType(Expression operand, Class<?> type) throws InvalidTypeException {
+        if (!type.isInstance(operand)) {
+            throw new InvalidTypeException(() -> "Incorrect type of operand " + operand.toString(), begin + pointer);
+        }
+    }
+
+    private Token nextToken() throws InvalidSyntaxException {
+        if (pointer >= expression.length()) {
+            checkPrimitive();
+            if (braceBalance != 0) {
+                throw syntaxError("Invalid braces arrangement: not enough close braces in the end of expression " + expression);
+            }
+            return token;
+        }
+        char symbol = expression.charAt(pointer);
+        if (symbol == '-' && !needOperation()) {
+            pointer++;
+            if (pointer >= expression.length() || !Character.isDigit(expression.charAt(pointer))) {
+                String found = pointer >= expression.length() ? "the end" : "<" + expression.charAt(pointer) + ">";
+                throw syntaxError("After unary minus at position " + pointer + " in expression <" + expression
+                        + "> number was expected, found " + found);
+            }
+            readNumber(true);
+        } else if (symbol == '(') {
+            checkOperation();
+            braceBalance++;
+            token = Token.OPEN_BRACE;
+            if (!operandsNumber.isEmpty()) {
+                operandsNumber.push(operandsNumber.pop() + 1);
+            }
+            operandsNumber.push(0);
+        } else if (symbol == ')') {
+            checkPrimitive();
+            braceBalance--;
+            if (braceBalance < 0) {
+                throw syntaxError("Invalid braces arrangement: extra close brace at position " + pointer
+                        + " of expression <" + expression + ">");
+            }
+            token = Token.CLOSE_BRACE;
+            int operands = operandsNumber.pop();
+            if ((operandsNumber.isEmpty() && pointer + 1 < expression.length()) || operands != 2) {
+                throw bracesError();
+            }
+        } else if ("+-*<>=&|".indexOf(symbol) >= 0) {
+            checkPrimitive();
+            token = Token.OPERATION;
+            operation = symbol;
+        } else if (Character.isDigit(symbol)) {
+            checkOperation();
+            readNumber(false);
+        } else {
+            int wordBegin = pointer;
+            while (pointer < expression.length() && Character.isLetter(expression.charAt(pointer))) {
+                pointer++;
+            }
+            String word = expression.substring(wordBegin, pointer--);
+            if (!ELEMENT.equals(word)) {
+                throw syntaxError("Illegal symbol \'" + symbol + "\' in expression " + expression);
+            }
+            checkOperation();
+            token = Token.ELEMENT;
+            updateOperandStack();
+        }
+        pointer++;
+        return token;
+    }
+
+    private void readNumber(boolean minus) throws InvalidSyntaxException {
+        int numberBegin = pointer;
+        while (pointer < expression.length() && Character.isDigit(expression.charAt(pointer))) {
+            pointer++;
+        }
+        String number = (minus ? "-" : "") + expression.substring(numberBegin, pointer--);
+        try {
+            value = Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Integer overflow: number " + number + " is too large");
+        }
+        token = Token.NUMBER;
+        updateOperandStack();
+    }
+
+    private void updateOperandStack() throws InvalidSyntaxException {
+        if (!binaryExpression) {
+            return;
+        }
+        if (operandsNumber.isEmpty()) {
+            throw bracesError();
+        }
+        operandsNumber.push(operandsNumber.pop() + 1);
+    }
+
+    private boolean needOperation() {
+        return token == Token.NUMBER || token == Token.ELEMENT || token == Token.CLOSE_BRACE;
+    }
+
+    private void checkOperation() throws InvalidSyntaxException {
+        if (needOperation()) {
+            throw syntaxError("operation was expected");
+        }
+    }
+
+    private void checkPrimitive() throws InvalidSyntaxException {
+        if (token == Token.BEGIN || token == Token.OPEN_BRACE || token == Token.OPERATION) {
+            throw syntaxError("Before position " + pointer + " in expression <" + expression + "> primitive was expected");
+        }
+    }
+
+    private InvalidSyntaxException bracesError() {
+        return syntaxError("Invalid braces arrangement: every binary expression of expression + <"
+                + expression + "> must be in braces");
+    }
+
+    private InvalidSyntaxException syntaxError(String message) {
+        return new InvalidSyntaxException(message, begin + pointer);
+    }
+}
@@ -1,17 +0,0 @@
-package expressions.parser;
-
-public enum Token {
-    BEGIN,
-    NUMBER,
-    ELEMENT,
-    OPEN_BRACE,
-    CLOSE_BRACE,
-    MULTIPLY,
-    ADD,
-    SUBTRACT,
-    LESS,
-    GREATER,
-    EQUALS,
-    AND,
-    OR,
-}
@@ -0,0 +1,92 @@
+package expressions.polynomial;
+
+import expressions.types.Budget;
+
+/**
+ * Multiplication of dense polynomials given by arrays of coefficients indexed by power.
+ * Small operands are multiplied by the schoolbook method, larger ones by the Karatsuba method.
+ * All arithmetic is done modulo 2^32, i.e. with Java {@code int} overflow, so both methods give the same result.
+ */
+final class DenseMultiplier {
+
+    static final int KARATSUBA_THRESHOLD = 32;
+
+    private DenseMultiplier() {
+    }
+
+    static int[] multiply(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length - 1];
+        multiply(a, 0, a.length, b, 0, b.length, result, 0);
+        return result;
+    }
+
+    /**
+     * Adds the product of {@code a[aOffset, aOffset + aLength)} and {@code b[bOffset, bOffset + bLength)}
+     * to {@code result} starting from {@code resultOffset}.
+     */
+    private static void multiply(int[] a, int aOffset, int aLength, int[] b, int bOffset, int bLength,
+                                 int[] result, int resultOffset) {
+        if (aLength < bLength) {
+            multiply(b, bOffset, bLength, a, aOffset, aLength, result, resultOffset);
+            return;
+        }
+        if (bLength < KARATSUBA_THRESHOLD) {
+            for (int i = 0; i < aLength; i++) {
+                int coefficient = a[aOffset + i];
+                if (coefficient == 0) {
+                    continue;
+                }
+                for (int j = 0; j < bLength; j++) {
+                    result[resultOffset + i + j] += coefficient * b[bOffset + j];
+                }
+            }
+            return;
+        }
+        if (aLength > bLength) {
+            for (int i = 0; i < aLength; i += bLength) {
+                multiply(a, aOffset + i, Math.min(bLength, aLength - i), b, bOffset, bLength, result, resultOffset + i);
+            }
+            return;
+        }
+        karatsuba(a, aOffset, b, bOffset, aLength, result, resultOffset);
+    }
+
+    /**
+     * Karatsuba step for operands of equal length {@code n}:
+     * (a1 x^m + a0)(b1 x^m + b0) = z2 x^2m + ((a0 + a1)(b0 + b1) - z2 - z0) x^m + z0.
+     */
+    private static void karatsuba(int[] a, int aOffset, int[] b, int bOffset, int n, int[] result, int resultOffset) {
+        Budget.checkpoint();
+        int m = n / 2;
+        int highLength = n - m;
+
+        int[] z0 = new int[2 * m - 1];
+        multiply(a, aOffset, m, b, bOffset, m, z0, 0);
+        int[] z2 = new int[2 * highLength - 1];
+        multiply(a, aOffset + m, highLength, b, bOffset + m, highLength, z2, 0);
+
+        int[] aSum = new int[highLength];
+        int[] bSum = new int[highLength];
+        for (int i = 0; i < highLength; i++) {
+            aSum[i] = a[aOffset + m + i];
+            bSum[i] = b[bOffset + m + i];
+        }
+        for (int i = 0; i < m; i++) {
+            aSum[i] += a[aOffset + i];
+            bSum[i] += b[bOffset + i];
+        }
+        int[] z1 = new int[2 * highLength - 1];
+        multiply(aSum, 0, highLength, bSum, 0, highLength, z1, 0);
+        for (int i = 0; i < z0.length; i++) {
+            z1[i] -= z0[i];
+            result[resultOffset + i] += z0[i];
+        }
+        for (int i = 0; i < z2.length; i++) {
+            z1[i] -= z2[i];
+            result[resultOffset + 2 * m + i] += z2[i];
+        }
+        for (int i = 0; i < z1.length; i++) {
+            result[resultOffset + m + i] += z1[i];
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package expressions.polynomial;
+
+import expressions.types.ArithmeticExpression;
+import expressions.types.Budget;
+import expressions.types.operations.ArithmeticOperation;
+import expressions.types.primitives.Element;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse polynomial of variable {@link Element} with {@code int} coefficients.
+ * Terms are stored in two parallel arrays of powers and coefficients sorted by ascending power,
+ * zero coefficients are never stored. Arithmetic follows Java {@code int} overflow semantics.
+ */
+public final class Polynomial {
+
+    private static final int[] EMPTY = new int[0];
+
+    public static final Polynomial ZERO = new Polynomial(EMPTY, EMPTY);
+
+    private final int[] pows;
+    private final int[] coefficients;
+    private int hash;
+
+    private Polynomial(int[] pows, int[] coefficients) {
+        this.pows = pows;
+        this.coefficients = coefficients;
+    }
+
+    public static Polynomial constant(int value) {
+        return monomial(value, 0);
+    }
+
+    public static Polynomial monomial(int coefficient, int pow) {
+        if (coefficient == 0) {
+            return ZERO;
+        }
+        return new Polynomial(new int[]{pow}, new int[]{coefficient});
+    }
+
+    /**
+     * @return number of non-zero terms
+     */
+    public int size() {
+        return pows.length;
+    }
+
+    public int getPow(int index) {
+        return pows[index];
+    }
+
+    public int getCoefficient(int index) {
+        return coefficients[index];
+    }
+
+    /**
+     * @return the highest power with non-zero coefficient, {@code 0} for constant polynomials
+     */
+    public int degree() {
+        return pows.length == 0 ? 0 : pows[pows.length - 1];
+    }
+
+    /**
+     * @return coefficient of the power 0
+     */
+    public int getConstant() {
+        return pows.length > 0 && pows[0] == 0 ? coefficients[0] : 0;
+    }
+
+    public boolean isConstant() {
+        return degree() == 0;
+    }
+
+    public Polynomial add(Polynomial other) {
+        return merge(other, 1);
+    }
+
+    public Polynomial subtract(Polynomial other) {
+        return merge(other, -1);
+    }
+
+    public Polynomial negate() {
+        return scale(-1);
+    }
+
+    public Polynomial scale(int factor) {
+        if (factor == 0) {
+            return ZERO;
+        }
+        if (factor == 1) {
+            return this;
+        }
+        int[] resultPows = new int[pows.length];
+        int[] resultCoefficients = new int[pows.length];
+        int size = 0;
+        for (int i = 0; i < pows.length; i++) {
+            int coefficient = coefficients[i] * factor;
+            if (coefficient != 0) {
+                resultPows[size] = pows[i];
+                resultCoefficients[size++] = coefficient;
+            }
+        }
+        return of(resultPows, resultCoefficients, size);
+    }
+
+    public Polynomial multiply(Polynomial other) {
+        if (pows.length == 0 || other.pows.length == 0) {
+            return ZERO;
+        }
+        if (other.pows.length == 1 && other.pows[0] == 0) {
+            return scale(other.coefficients[0]);
+        }
+        if (pows.length == 1 && pows[0] == 0) {
+            return other.scale(coefficients[0]);
+        }
+        long products = (long) pows.length * other.pows.length;
+        long degree = (long) degree() + other.degree();
+        Budget.checkDegree(degree);
+        Budget.countNodes(Math.min(products, degree + 1));
+        if (isDense() && other.isDense()
+                && Math.min(pows.length, other.pows.length) >= DenseMultiplier.KARATSUBA_THRESHOLD) {
+            return fromDense(DenseMultiplier.multiply(toDense(), other.toDense()));
+        }
+        if (degree < 4 * products) {
+            return multiplyDense(other, (int) degree);
+        }
+        return multiplySparse(other, (int) products);
+    }
+
+    /**
+     * Computes composition of polynomials, i.e. substitutes {@code inner} for the variable of this polynomial.
+     * Uses Horner's scheme: gaps between powers of this polynomial are filled with cached powers of {@code inner}.
+     *
+     * @param inner polynomial to substitute
+     * @return {@code Polynomial} equal to {@code this(inner(element))}
+     */
+    public Polynomial compose(Polynomial inner) {
+        if (pows.length == 0 || isConstant()) {
+            return this;
+        }
+        if (inner.pows.length == 1 && inner.pows[0] == 1 && inner.coefficients[0] == 1) {
+            return this;
+        }
+        Budget.checkDegree((long) degree() * inner.degree());
+        Powers powers = new Powers(inner);
+        int last = pows.length - 1;
+        Polynomial result = constant(coefficients[last]);
+        for (int i = last - 1; i >= 0; i--) {
+            Budget.checkpoint();
+            result = result.multiply(powers.get(pows[i + 1] - pows[i])).add(constant(coefficients[i]));
+        }
+        return result.multiply(powers.get(pows[0]));
+    }
+
+    /**
+     * Polynomial is dense if at least half of coefficients up to its degree are not zero.
+     */
+    private boolean isDense() {
+        return 2L * pows.length > degree();
+    }
+
+    private int[] toDense() {
+        int[] coefficientByPow = new int[degree() + 1];
+        for (int i = 0; i < pows.length; i++) {
+            coefficientByPow[pows[i]] = coefficients[i];
+        }
+        return coefficientByPow;
+    }
+
+    /**
+     * Accumulates products in the array indexed by power, used when the result is dense enough.
+     */
+    private Polynomial multiplyDense(Polynomial other, int degree) {
+        int[] accumulator = new int[degree + 1];
+        for (int i = 0; i < pows.length; i++) {
+            Budget.checkpoint();
+            for (int j = 0; j < other.pows.length; j++) {
+                accumulator[pows[i] + other.pows[j]] += coefficients[i] * other.coefficients[j];
+            }
+        }
+        return fromDense(accumulator);
+    }
+
+    /**
+     * Sorts products packed into {@code long} values as (power, coefficient) pairs and sums equal powers.
+     */
+    private Polynomial multiplySparse(Polynomial other, int products) {
+        long[] terms = new long[products];
+        int k = 0;
+        for (int i = 0; i < pows.length; i++) {
+            Budget.checkpoint();
+            for (int j = 0; j < other.pows.length; j++) {
+                terms[k++] = ((long) (pows[i] + other.pows[j]) << 32)
+                        | ((coefficients[i] * other.coefficients[j]) & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(terms);
+        int[] resultPows = new int[products];
+        int[] resultCoefficients = new int[products];
+        int size = 0;
+        int i = 0;
+        while (i < products) {
+            int pow = (int) (terms[i] >>> 32);
+            int coefficient = 0;
+            while (i < products && (int) (terms[i] >>> 32) == pow) {
+                coefficient += (int) terms[i++];
+            }
+            if (coefficient != 0) {
+                resultPows[size] = pow;
+                resultCoefficients[size++] = coefficient;
+            }
+        }
+        return of(resultPows, resultCoefficients, size);
+    }
+
+    private Polynomial merge(Polynomial other, int sign) {
+        int[] resultPows = new int[pows.length + other.pows.length];
+        int[] resultCoefficients = new int[resultPows.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < pows.length || j < other.pows.length) {
+            int pow;
+            int coefficient;
+            if (j == other.pows.length || (i < pows.length && pows[i] < other.pows[j])) {
+                pow = pows[i];
+                coefficient = coefficients[i++];
+            } else if (i == pows.length || other.pows[j] < pows[i]) {
+                pow = other.pows[j];
+                coefficient = sign * other.coefficients[j++];
+            } else {
+                pow = pows[i];
+                coefficient = coefficients[i++] + sign * other.coefficients[j++];
+            }
+            if (coefficient != 0) {
+                resultPows[size] = pow;
+                resultCoefficients[size++] = coefficient;
+            }
+        }
+        return of(resultPows, resultCoefficients, size);
+    }
+
+    /**
+     * Creates polynomial from coefficients indexed by power.
+     *
+     * @param coefficientByPow array where element with index {@code i} is a coefficient of power {@code i}
+     * @return {@code Polynomial} with the specified coefficients
+     */
+    public static Polynomial fromDense(int[] coefficientByPow) {
+        int size = 0;
+        for (int coefficient : coefficientByPow) {
+            if (coefficient != 0) {
+                size++;
+            }
+        }
+        int[] resultPows = new int[size];
+        int[] resultCoefficients = new int[size];
+        int k = 0;
+        for (int pow = 0; pow < coefficientByPow.length; pow++) {
+            if (coefficientByPow[pow] != 0) {
+                resultPows[k] = pow;
+                resultCoefficients[k++] = coefficientByPow[pow];
+            }
+        }
+        return size == 0 ? ZERO : new Polynomial(resultPows, resultCoefficients);
+    }
+
+    private static Polynomial of(int[] pows, int[] coefficients, int size) {
+        if (size == 0) {
+            return ZERO;
+        }
+        if (size == pows.length) {
+            return new Polynomial(pows, coefficients);
+        }
+        return new Polynomial(Arrays.copyOf(pows, size), Arrays.copyOf(coefficients, size));
+    }
+
+    /**
+     * Generates representation of {@code ArithmeticExpression} as the sum of monomials in ascending order of powers.
+     *
+     * @return {@code ArithmeticExpression} equivalent to this polynomial
+     */
+    public ArithmeticExpression toExpression() {
+        return ArithmeticOperation.fromPolynomial(this);
+    }
+
+    /**
+     * Generates representation of {@code ArithmeticExpression} by Horner's scheme.
+     *
+     * @return {@code ArithmeticExpression} equivalent to this polynomial
+     */
+    public ArithmeticExpression toHornerExpression() {
+        return ArithmeticOperation.hornerFromPolynomial(this);
+    }
+
+    /**
+     * Cache of powers of a polynomial. Power {@code k} is computed by multiplying
+     * cached powers {@code 2^j} from the binary representation of {@code k}.
+     * Computed powers are kept in arrays sorted by exponent, so exponents are not boxed.
+     */
+    private static class Powers {
+        private final Polynomial[] powersOfTwo = new Polynomial[Integer.SIZE];
+        private int powersOfTwoCount = 1;
+        private int[] exponents = {0, 1};
+        private Polynomial[] powers;
+        private int size = 2;
+
+        Powers(Polynomial base) {
+            powersOfTwo[0] = base;
+            powers = new Polynomial[]{constant(1), base};
+        }
+
+        Polynomial get(int pow) {
+            int index = Arrays.binarySearch(exponents, 0, size, pow);
+            if (index >= 0) {
+                return powers[index];
+            }
+            Polynomial result = null;
+            for (int bit = 0; (pow >>> bit) != 0; bit++) {
+                if (bit == powersOfTwoCount) {
+                    Polynomial previous = powersOfTwo[bit - 1];
+                    powersOfTwo[powersOfTwoCount++] = previous.multiply(previous);
+                }
+                if (((pow >>> bit) & 1) != 0) {
+                    result = result == null ? powersOfTwo[bit] : result.multiply(powersOfTwo[bit]);
+                }
+            }
+            insert(-index - 1, pow, result);
+            return result;
+        }
+
+        private void insert(int index, int pow, Polynomial power) {
+            if (size == exponents.length) {
+                exponents = Arrays.copyOf(exponents, size * 2);
+                powers = Arrays.copyOf(powers, size * 2);
+            }
+            System.arraycopy(exponents, index, exponents, index + 1, size - index);
+            System.arraycopy(powers, index, powers, index + 1, size - index);
+            exponents[index] = pow;
+            powers[index] = power;
+            size++;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Polynomial that = (Polynomial) o;
+        return Arrays.equals(pows, that.pows) && Arrays.equals(coefficients, that.coefficients);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            result = 31 * Arrays.hashCode(pows) + Arrays.hashCode(coefficients);
+            hash = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toExpression().toString();
+    }
+}
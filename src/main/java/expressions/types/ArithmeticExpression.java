@@ -1,8 +1,17 @@
 package expressions.types;
 
+import expressions.polynomial.Polynomial;
+
 /**
  * Implementation of the {@code Expression} interface representing arithmetic expressions.
  * Arithmetic expressions are composed with the operators '+', '-', '*', numeric constants and variable {@code Element}.
  */
 public interface ArithmeticExpression extends Expression {
-}
\ No newline at end of file
+
+    /**
+     * Expands expression into the sum of monomials.
+     *
+     * @return {@link Polynomial} equal to this expression
+     */
+    Polynomial toPolynomial();
+}
@@ -0,0 +1,150 @@
+package expressions.types;
+
+import exceptions.BudgetExceededException;
+import exceptions.BudgetExceededException.Limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limits of work of a single conversion, checked cooperatively by the code building expressions and polynomials.
+ * The budget is bound to the converting thread between {@link #enter} and {@link #close()}, so nodes,
+ * polynomials and simplifiers check it without passing it through every call.
+ * While no budget is entered by any thread, checks cost one volatile read.
+ * <p>
+ * Exceeded budget is reported with {@link BudgetExceededException}, the results memoized by nodes
+ * are assigned only after they are computed, so unwinding leaves no partially built state.
+ */
+public final class Budget implements AutoCloseable {
+
+    /**
+     * Number of counted nodes between checks of the clock and of the cancellation flag.
+     */
+    private static final int CHECK_INTERVAL = 256;
+
+    private static final ThreadLocal<Budget> current = new ThreadLocal<>();
+    private static final AtomicInteger entered = new AtomicInteger();
+
+    private final long maxNodes;
+    private final long maxDegree;
+    private final long deadline;
+    private final BooleanSupplier cancelled;
+    private final Budget previous;
+
+    private long nodes;
+    private int untilCheck = CHECK_INTERVAL;
+
+    private Budget(long maxNodes, long maxDegree, long deadline, BooleanSupplier cancelled, Budget previous) {
+        this.maxNodes = maxNodes;
+        this.maxDegree = maxDegree;
+        this.deadline = deadline;
+        this.cancelled = cancelled;
+        this.previous = previous;
+    }
+
+    /**
+     * Binds new budget to the current thread until it is closed.
+     *
+     * @param maxNodes     maximum number of created nodes, {@link Long#MAX_VALUE} for no limit
+     * @param maxDegree    maximum degree of polynomials, {@link Long#MAX_VALUE} for no limit
+     * @param deadline     {@link System#nanoTime()} after which work stops, {@link Long#MAX_VALUE} for no limit
+     * @param cancelled    returns {@code true} once the work is cancelled from another thread
+     * @return entered budget
+     */
+    public static Budget enter(long maxNodes, long maxDegree, long deadline, BooleanSupplier cancelled) {
+        Budget budget = new Budget(maxNodes, maxDegree, deadline, cancelled, current.get());
+        budget.check();
+        current.set(budget);
+        entered.incrementAndGet();
+        return budget;
+    }
+
+    /**
+     * Counts a created node and checks the clock and cancellation every {@value #CHECK_INTERVAL} nodes.
+     */
+    public static void countNode() {
+        if (entered.get() != 0) {
+            Budget budget = current.get();
+            if (budget != null) {
+                budget.count(1);
+            }
+        }
+    }
+
+    /**
+     * Counts {@code size} units of work, e.g. terms of a computed polynomial.
+     */
+    public static void countNodes(long size) {
+        if (entered.get() != 0) {
+            Budget budget = current.get();
+            if (budget != null) {
+                budget.count(size);
+            }
+        }
+    }
+
+    /**
+     * Checks that polynomial of {@code degree} may be built.
+     */
+    public static void checkDegree(long degree) {
+        if (entered.get() != 0) {
+            Budget budget = current.get();
+            if (budget != null && degree > budget.maxDegree) {
+                throw new BudgetExceededException(Limit.DEGREE,
+                        "Polynomial of degree " + degree + " exceeds the limit " + budget.maxDegree);
+            }
+        }
+    }
+
+    /**
+     * Checks the clock and cancellation in loops which do not create nodes.
+     */
+    public static void checkpoint() {
+        if (entered.get() != 0) {
+            Budget budget = current.get();
+            if (budget != null) {
+                budget.count(0);
+            }
+        }
+    }
+
+    private void count(long size) {
+        nodes += size;
+        if (nodes > maxNodes) {
+            throw new BudgetExceededException(Limit.NODES, "Conversion created more than " + maxNodes + " nodes");
+        }
+        if (--untilCheck <= 0 || size >= CHECK_INTERVAL) {
+            untilCheck = CHECK_INTERVAL;
+            check();
+        }
+    }
+
+    private void check() {
+        if (cancelled.getAsBoolean()) {
+            throw new BudgetExceededException(Limit.CANCELLED, "Conversion was cancelled");
+        }
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            throw new BudgetExceededException(Limit.DEADLINE, "Conversion missed its deadline");
+        }
+    }
+
+    /**
+     * @return number of nodes counted so far
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Unbinds the budget from the current thread restoring the enclosing one.
+     */
+    @Override
+    public void close() {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+        entered.decrementAndGet();
+    }
+}
@@ -0,0 +1,97 @@
+package expressions.types;
+
+import expressions.types.operations.BinaryOperation;
+import expressions.types.primitives.Const;
+import expressions.types.primitives.Element;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes text of expressions straight into {@link Appendable} in one pass.
+ * Operations are written as {@code "(" left symbol right ")"}, and {@link Element} of power {@code n}
+ * as the left-nested product of {@code n} elements. The tree is traversed with an explicit stack,
+ * so time is linear in the length of the text, and deep expressions do not overflow the thread stack.
+ * Written products of elements count as nodes of the entered {@link Budget}.
+ */
+public final class ExpressionWriter {
+
+    private static final String ELEMENT = "element";
+    private static final String CLOSE = ")";
+    private static final String POWER_STEP = "*element)";
+
+    private ExpressionWriter() {
+    }
+
+    /**
+     * @param expression {@link Expression} to write
+     * @param out        destination of the text
+     * @param <A>        type of the destination
+     * @return {@code out}
+     * @throws IOException if {@code out} fails
+     */
+    public static <A extends Appendable> A write(Expression expression, A out) throws IOException {
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(expression);
+        while (!stack.isEmpty()) {
+            Object item = stack.pop();
+            if (item instanceof BinaryOperation) {
+                BinaryOperation operation = (BinaryOperation) item;
+                Budget.checkpoint();
+                out.append('(');
+                stack.push(CLOSE);
+                stack.push(operation.getRight());
+                stack.push(operation.getSymbol());
+                stack.push(operation.getLeft());
+            } else if (item instanceof Character) {
+                out.append((Character) item);
+            } else if (item instanceof String) {
+                out.append((String) item);
+            } else {
+                writeLeaf((Expression) item, out);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Same as {@link #write(Expression, Appendable)} for {@link StringBuilder}, which never fails.
+     */
+    public static StringBuilder write(Expression expression, StringBuilder out) {
+        try {
+            write(expression, (Appendable) out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out;
+    }
+
+    public static String toString(Expression expression) {
+        return write(expression, new StringBuilder()).toString();
+    }
+
+    private static void writeLeaf(Expression expression, Appendable out) throws IOException {
+        if (expression instanceof Const) {
+            int value = ((Const) expression).getValue();
+            if (out instanceof StringBuilder) {
+                ((StringBuilder) out).append(value);
+            } else {
+                out.append(Integer.toString(value));
+            }
+        } else if (expression instanceof Element) {
+            int pow = ((Element) expression).getPow();
+            Budget.countNodes(pow - 1);
+            for (int i = 1; i < pow; i++) {
+                out.append('(');
+            }
+            out.append(ELEMENT);
+            for (int i = 1; i < pow; i++) {
+                out.append(POWER_STEP);
+            }
+        } else {
+            out.append(expression.toString());
+        }
+    }
+}
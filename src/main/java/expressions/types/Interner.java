@@ -0,0 +1,54 @@
+package expressions.types;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Hash-consing table of expression nodes.
+ * Every node is created through {@link #intern(Expression)}, so structurally equal nodes
+ * are represented by a single canonical instance while it is reachable.
+ * <p>
+ * The table is split into stripes by node hash, every stripe is guarded by its own lock.
+ * Nodes are referenced weakly and are dropped from the table once they become unreachable.
+ */
+public final class Interner {
+
+    private static final int STRIPES = 64;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Map<Expression, WeakReference<Expression>>[] tables = new Map[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            tables[i] = new WeakHashMap<>();
+        }
+    }
+
+    private Interner() {
+    }
+
+    /**
+     * Returns the canonical instance structurally equal to {@code expression}.
+     * Operands of {@code expression} are expected to be canonical already.
+     *
+     * @param expression newly created node
+     * @param <T>        type of the node
+     * @return canonical node equal to {@code expression}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Expression> T intern(T expression) {
+        Budget.countNode();
+        int hash = expression.hashCode();
+        Map<Expression, WeakReference<Expression>> table = tables[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        synchronized (table) {
+            WeakReference<Expression> reference = table.get(expression);
+            Expression canonical = reference == null ? null : reference.get();
+            if (canonical != null) {
+                return (T) canonical;
+            }
+            table.put(expression, new WeakReference<>(expression));
+            return expression;
+        }
+    }
+}
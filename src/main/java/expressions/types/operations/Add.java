@@ -1,34 +1,31 @@
 package expressions.types.operations;
 
+import expressions.polynomial.Polynomial;
 import expressions.types.ArithmeticExpression;
-
-import java.util.Map;
+import expressions.types.Interner;
 
 public class Add extends ArithmeticOperation {
 
-    public Add(ArithmeticExpression left, ArithmeticExpression right) {
-        super(left, right, (a, b) -> (a + b));
+    private Add(ArithmeticExpression left, ArithmeticExpression right) {
+        super(left, right);
+    }
+
+    public static Add of(ArithmeticExpression left, ArithmeticExpression right) {
+        return Interner.intern(new Add(left, right));
     }
 
     @Override
-    protected ArithmeticExpression toPolynomialImpl() {
-        if (equals(left, 0)) {
-            return right;
-        }
-        if (equals(right, 0)) {
-            return left;
-        }
-        return this;
+    Add create(ArithmeticExpression left, ArithmeticExpression right) {
+        return of(left, right);
     }
 
     @Override
-    protected void processCoefficients(Map<Integer, Integer> coefficientByPow, int sign) {
-        processAddOrSubtract(left, sign, coefficientByPow);
-        processAddOrSubtract(right, sign, coefficientByPow);
+    Polynomial apply(Polynomial left, Polynomial right) {
+        return left.add(right);
     }
 
     @Override
-    protected Character getSymbol() {
+    public Character getSymbol() {
         return '+';
     }
-}
\ No newline at end of file
+}
@@ -1,173 +1,148 @@
 package expressions.types.operations;
 
+import expressions.polynomial.Polynomial;
 import expressions.types.ArithmeticExpression;
+import expressions.types.Expression;
 import expressions.types.primitives.Const;
 import expressions.types.primitives.Element;
-import expressions.types.Expression;
-
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.BiFunction;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of {@code ArithmeticExpression} representing binary operation with arithmetic type.
  */
 public abstract class ArithmeticOperation extends BinaryOperation implements ArithmeticExpression {
 
-    protected ArithmeticExpression left, right;
+    protected final ArithmeticExpression left, right;
 
-    private final BiFunction<Integer, Integer, Integer> action;
+    /**
+     * Polynomial of this node, computed once because nodes are immutable and shared.
+     */
+    private Polynomial polynomial;
 
-    ArithmeticOperation(ArithmeticExpression left, ArithmeticExpression right,
-                        BiFunction<Integer, Integer, Integer> action) {
+    ArithmeticOperation(ArithmeticExpression left, ArithmeticExpression right) {
+        super(left, right);
         this.left = left;
         this.right = right;
-        this.action = action;
-    }
-
-    @Override
-    public ArithmeticExpression simplify() {
-        ArithmeticExpression result = toPolynomial();
-        if (result instanceof ArithmeticOperation) {
-            result = convertToExpression(((ArithmeticOperation) result).calcSummands());
-        }
-        return result;
     }
 
     /**
-     * Simplifies by some simple rules and expands distributive laws, if it is possible.
+     * Expands expression into polynomial and generates the sum of monomials in ascending order of powers.
      *
-     * @return {@code ArithmeticExpression} representing expression simplified to polynomial
+     * @return simplified equivalent {@code ArithmeticExpression}
      */
-    ArithmeticExpression toPolynomial() {
-        if (left instanceof ArithmeticOperation) {
-            left = ((ArithmeticOperation) left).toPolynomial();
-        }
-        if (right instanceof ArithmeticOperation) {
-            right = ((ArithmeticOperation) right).toPolynomial();
-        }
-        if (left instanceof Const && right instanceof Const) {
-            return new Const(action.apply(((Const) left).getValue(), ((Const) right).getValue()));
-        }
-        return toPolynomialImpl();
-    }
-
-    /**
-     * Simplifies by some simple rules and implements expanding brackets using distributive rule, if it is possible,
-     * for specified arithmetic operation.
-     *
-     * @return simplified equivalent expression.
-     */
-    abstract ArithmeticExpression toPolynomialImpl();
-
-    /**
-     * Recursively visits all nodes of expressions binary tree and calculates summary coefficient for every summand.
-     *
-     * @return a {@code Map} containing summary coefficient for every element in specified pow.
-     */
-    Map<Integer, Integer> calcSummands() {
-        Map<Integer, Integer> coefficientByPow = new HashMap<>();
-        processCoefficients(coefficientByPow, 1);
-        return coefficientByPow.entrySet().stream().filter(e -> e.getValue() != 0)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    @Override
+    public ArithmeticExpression simplify() {
+        return toPolynomial().toExpression();
     }
 
-    void processAddOrSubtract(ArithmeticExpression expression, int sign, Map<Integer, Integer> coefficientByPow) {
-        if (expression instanceof Element) {
-            updateCoefficientsMap(((Element) expression).getPow(), sign, coefficientByPow);
-            return;
-        }
-        if (expression instanceof Const) {
-            updateCoefficientsMap(0, sign * ((Const) expression).getValue(), coefficientByPow);
-            return;
-        }
-        if (expression != null) {
-            ((ArithmeticOperation) expression).processCoefficients(coefficientByPow, sign);
+    @Override
+    public Polynomial toPolynomial() {
+        Polynomial result = polynomial;
+        if (result == null) {
+            result = apply(left.toPolynomial(), right.toPolynomial());
+            polynomial = result;
         }
+        return result;
     }
 
-    protected abstract void processCoefficients(Map<Integer, Integer> coefficientByPow, int sign);
-
     /**
-     * Generates representation of {@code ArithmeticExpression} based on the provided map {@code coefficientByPow}.
+     * Generates representation of {@code ArithmeticExpression} as the sum of monomials in ascending order of powers.
+     * The polynomial is remembered by the resulting expression, so it is never expanded again.
      *
-     * @param coefficientByPow {@code Map} representing summary coefficients for every element in specified pow
-     * @return {@code ArithmeticExpression} based on {@code coefficientByPow}.
+     * @param polynomial {@link Polynomial} to represent
+     * @return {@code ArithmeticExpression} equal to {@code polynomial}
      */
-    private ArithmeticExpression convertToExpression(Map<Integer, Integer> coefficientByPow) {
+    public static ArithmeticExpression fromPolynomial(Polynomial polynomial) {
+        if (polynomial.size() == 0) {
+            return Const.of(0);
+        }
         ArithmeticExpression result = null;
-        boolean first = true;
-
-        for (Map.Entry<Integer, Integer> entry : coefficientByPow.entrySet()) {
-            int pow = entry.getKey();
-            int coefficient = entry.getValue();
+        for (int i = 0; i < polynomial.size(); i++) {
+            int pow = polynomial.getPow(i);
+            int coefficient = polynomial.getCoefficient(i);
+            int resultCoefficient = i == 0 ? coefficient : Math.abs(coefficient);
             ArithmeticExpression expression;
-
-            int resultCoefficient = first ? coefficient : Math.abs(coefficient);
             if (pow == 0) {
-                expression = new Const(resultCoefficient);
+                expression = Const.of(resultCoefficient);
             } else if (resultCoefficient == 1) {
-                expression = new Element(pow);
+                expression = Element.of(pow);
             } else {
-                expression = new Multiply(new Const(resultCoefficient), new Element(pow));
+                expression = Multiply.of(Const.of(resultCoefficient), Element.of(pow));
             }
-            if (first) {
+            if (i == 0) {
                 result = expression;
-                first = false;
-                continue;
-            }
-            if (coefficient > 0) {
-                result = new Add(result, expression);
+            } else if (coefficient > 0) {
+                result = Add.of(result, expression);
             } else {
-                result = new Subtract(result, expression);
+                result = Subtract.of(result, expression);
             }
         }
-        if (result == null) {
-            return new Const(0);
+        if (result instanceof ArithmeticOperation && ((ArithmeticOperation) result).polynomial == null) {
+            ((ArithmeticOperation) result).polynomial = polynomial;
         }
         return result;
     }
 
-    void updateCoefficientsMap(int pow, int coefficient, Map<Integer, Integer> coefficientByPow) {
-        if (coefficientByPow.containsKey(pow)) {
-            coefficient += coefficientByPow.get(pow);
+    /**
+     * Generates representation of {@code polynomial} by Horner's scheme, e.g. {@code ((((a*element)+b)*element)+c)}.
+     * Gaps between powers are filled with powers of {@link Element}, so the expression takes as many
+     * multiplications by element as the degree, while the sum of monomials takes quadratically many for dense
+     * polynomials. The polynomial is remembered by the resulting expression, so it is never expanded again.
+     *
+     * @param polynomial {@link Polynomial} to represent
+     * @return {@code ArithmeticExpression} equal to {@code polynomial}
+     */
+    public static ArithmeticExpression hornerFromPolynomial(Polynomial polynomial) {
+        if (polynomial.size() == 0) {
+            return Const.of(0);
         }
-        coefficientByPow.put(pow, coefficient);
-    }
-
-    @Override
-    public String toString() {
-        return "(" + left.toString() + getSymbol() + right.toString() + ")";
+        int last = polynomial.size() - 1;
+        ArithmeticExpression result = Const.of(polynomial.getCoefficient(last));
+        int pow = polynomial.getPow(last);
+        for (int i = last - 1; i >= -1; i--) {
+            int nextPow = i < 0 ? 0 : polynomial.getPow(i);
+            if (pow > nextPow) {
+                result = result instanceof Const && ((Const) result).getValue() == 1
+                        ? Element.of(pow - nextPow)
+                        : Multiply.of(result, Element.of(pow - nextPow));
+            }
+            if (i >= 0) {
+                int coefficient = polynomial.getCoefficient(i);
+                result = coefficient > 0
+                        ? Add.of(result, Const.of(coefficient))
+                        : Subtract.of(result, Const.of(Math.abs(coefficient)));
+            }
+            pow = nextPow;
+        }
+        if (result instanceof ArithmeticOperation && ((ArithmeticOperation) result).polynomial == null) {
+            ((ArithmeticOperation) result).polynomial = polynomial;
+        }
+        return result;
     }
 
-    protected abstract Character getSymbol();
-
+    /**
+     * Applies operation to polynomials of operands.
+     *
+     * @param left  {@link Polynomial} of the left operand
+     * @param right {@link Polynomial} of the right operand
+     * @return result of the operation
+     */
+    abstract Polynomial apply(Polynomial left, Polynomial right);
 
-    protected boolean equals(ArithmeticExpression expression, int n) {
-        return expression instanceof Const && ((Const) expression).getValue() == n;
-    }
+    /**
+     * Creates the canonical operation of the same type with the specified operands.
+     *
+     * @param left  left operand
+     * @param right right operand
+     * @return {@code ArithmeticOperation} of the same type
+     */
+    abstract ArithmeticOperation create(ArithmeticExpression left, ArithmeticExpression right);
 
     @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        ArithmeticOperation that = (ArithmeticOperation) o;
-
-        Map<Integer, Integer> thisCoefficients = this.calcSummands();
-        Map<Integer, Integer> thatCoefficients = that.calcSummands();
-
-        if (thisCoefficients.size() != thatCoefficients.size()) {
-            return false;
+    public ArithmeticOperation withOperands(Expression left, Expression right) {
+        if (left == this.left && right == this.right) {
+            return this;
         }
-        for (Map.Entry<Integer, Integer> entry : thisCoefficients.entrySet()) {
-            int k = entry.getKey();
-            int v = entry.getValue();
-            if (!thatCoefficients.containsKey(k) || thatCoefficients.get(k) != v) {
-                return false;
-            }
-        }
-        return true;
+        return create((ArithmeticExpression) left, (ArithmeticExpression) right);
     }
 
     @Override
@@ -179,14 +154,4 @@ public abstract class ArithmeticOperation extends BinaryOperation implements Ari
     public ArithmeticExpression getRight() {
         return right;
     }
-
-    @Override
-    public void setLeft(Expression left) {
-        this.left = (ArithmeticExpression) left;
-    }
-
-    @Override
-    public void setRight(Expression right) {
-        this.right = (ArithmeticExpression) right;
-    }
 }
@@ -1,18 +1,56 @@
 package expressions.types.operations;
 
 import expressions.types.Expression;
+import expressions.types.ExpressionWriter;
 
 /**
  * Implementation of the {@code Expression} interface representing binary operation.
  * Binary operations must have two operands to create a new value.
+ * <p>
+ * Binary operations are immutable and interned: structurally equal operations are the same instance,
+ * and the structural hash is computed once on creation.
  */
 public abstract class BinaryOperation implements Expression {
 
+    private final int hash;
+
+    BinaryOperation(Expression left, Expression right) {
+        hash = 31 * (31 * getSymbol() + left.hashCode()) + right.hashCode();
+    }
+
     public abstract Expression getLeft();
 
     public abstract Expression getRight();
 
-    public abstract void setLeft(Expression left);
+    /**
+     * Creates the operation of the same type with the other operands.
+     *
+     * @param left  new left operand
+     * @param right new right operand
+     * @return canonical operation with the specified operands, {@code this} if operands are the same
+     */
+    public abstract BinaryOperation withOperands(Expression left, Expression right);
+
+    /**
+     * @return symbol of the operation in <binary-expression>
+     */
+    public abstract Character getSymbol();
+
+    @Override
+    public String toString() {
+        return ExpressionWriter.toString(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BinaryOperation that = (BinaryOperation) o;
+        return hash == that.hash && getLeft().equals(that.getLeft()) && getRight().equals(that.getRight());
+    }
 
-    public abstract void setRight(Expression right);
+    @Override
+    public int hashCode() {
+        return hash;
+    }
 }
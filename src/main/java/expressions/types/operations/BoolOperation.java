@@ -1,11 +1,16 @@
 package expressions.types.operations;
 
 import expressions.types.ArithmeticExpression;
+import expressions.types.Budget;
 import expressions.types.LogicalExpression;
 import expressions.types.primitives.Bool;
-import expressions.types.primitives.Const;
 import expressions.types.Expression;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.BiFunction;
 
 /**
@@ -15,9 +20,23 @@ public abstract class BoolOperation extends BinaryOperation implements LogicalEx
 
     private final BiFunction<Boolean, Boolean, Boolean> action;
 
-    LogicalExpression left, right;
+    private static final Restriction NO_RESTRICTION = new Restriction(null, null);
+
+    final LogicalExpression left, right;
+
+    /**
+     * Result of {@link #simplify()}, computed once because nodes are immutable and shared.
+     */
+    private LogicalExpression simplified;
+
+    /**
+     * Values of the single expression restricted by this operation, {@link #NO_RESTRICTION} if there are several
+     * restricted expressions. Computed once because nodes are immutable and shared.
+     */
+    private Restriction restriction;
 
     BoolOperation(LogicalExpression left, LogicalExpression right, BiFunction<Boolean, Boolean, Boolean> action) {
+        super(left, right);
         this.left = left;
         this.right = right;
         this.action = action;
@@ -25,42 +44,142 @@ public abstract class BoolOperation extends BinaryOperation implements LogicalEx
 
     @Override
     public LogicalExpression simplify() {
-        left = (LogicalExpression) left.simplify();
-        right = (LogicalExpression) right.simplify();
+        LogicalExpression result = simplified;
+        if (result == null) {
+            result = simplifyImpl();
+            simplified = result;
+        }
+        return result;
+    }
+
+    private LogicalExpression simplifyImpl() {
+        Budget.checkpoint();
+        LogicalExpression left = (LogicalExpression) this.left.simplify();
+        LogicalExpression right = (LogicalExpression) this.right.simplify();
 
         if (left instanceof Bool && right instanceof Bool) {
-            return new Bool(action.apply(((Bool) left).isTrue(), ((Bool) right).isTrue()));
+            return Bool.of(action.apply(((Bool) left).isTrue(), ((Bool) right).isTrue()));
         }
+        return create(left, right).simplifyOperands();
+    }
 
+    /**
+     * Simplifies operation assuming that both of operands are already simplified.
+     *
+     * @return {@link LogicalExpression} simplified equivalent expression.
+     */
+    private LogicalExpression simplifyOperands() {
         LogicalExpression result;
         result = simplifyBoolean();
         if (result != null) {
             return result;
         }
 
-        result = trySimplifyDistributive();
+        result = normalizeComparisons();
         if (result != null) {
             return result;
         }
 
-        if (!(left instanceof ComparisonOperation) || !(right instanceof ComparisonOperation)) {
-            return this;
+        result = trySimplifyDistributive();
+        return result == null ? this : result;
+    }
+
+    /**
+     * Merges comparisons of the same expression with constants.
+     * If the whole operation restricts only one expression, it is replaced with the shortest form of its {@link IntervalSet}.
+     * Otherwise the chain of operations of this type is flattened, restrictions of every expression are combined
+     * and placed at the position of the first of them.
+     *
+     * @return {@link LogicalExpression} simplified expression or {@code null} if there is nothing to merge
+     */
+    private LogicalExpression normalizeComparisons() {
+        Restriction restriction = getRestriction();
+        if (restriction != null) {
+            return restriction.values.toExpression(restriction.operand);
         }
-        ComparisonOperation comparisonLeft = (ComparisonOperation) left;
-        ComparisonOperation comparisonRight = (ComparisonOperation) right;
-        if (!(comparisonLeft.getRight() instanceof Const || !(comparisonRight.getRight() instanceof Const))) {
-            return this;
+
+        List<LogicalExpression> operands = new ArrayList<>();
+        collectOperands(left, operands);
+        collectOperands(right, operands);
+        Restriction[] restrictions = new Restriction[operands.size()];
+        Map<ArithmeticExpression, List<IntervalSet>> groups = new HashMap<>();
+        boolean merged = false;
+        for (int i = 0; i < restrictions.length; i++) {
+            restrictions[i] = restrictionOf(operands.get(i));
+            if (restrictions[i] != null) {
+                List<IntervalSet> group = groups.computeIfAbsent(restrictions[i].operand, operand -> new ArrayList<>());
+                merged |= !group.isEmpty();
+                group.add(restrictions[i].values);
+            }
         }
-        ArithmeticExpression exp = comparisonLeft.getLeft();
-        if (!exp.equals(comparisonRight.getLeft())) {
-            return this;
+        if (!merged) {
+            return null;
         }
 
-        result = trySimplifyComparison(comparisonLeft, comparisonRight);
+        LogicalExpression result = null;
+        for (int i = 0; i < restrictions.length; i++) {
+            LogicalExpression operand = operands.get(i);
+            if (restrictions[i] != null) {
+                List<IntervalSet> group = groups.remove(restrictions[i].operand);
+                if (group == null) {
+                    continue;
+                }
+                operand = combine(group).toExpression(restrictions[i].operand);
+            }
+            result = result == null ? operand : create(result, operand);
+        }
+        return (LogicalExpression) result.simplify();
+    }
 
-        return result == null ? this : result;
+    /**
+     * Collects operands of the chain of operations of this type. Operations restricting one expression are not split.
+     */
+    private void collectOperands(LogicalExpression operand, List<LogicalExpression> operands) {
+        if (operand.getClass() == getClass() && restrictionOf(operand) == null) {
+            BoolOperation operation = (BoolOperation) operand;
+            collectOperands(operation.left, operands);
+            collectOperands(operation.right, operands);
+        } else {
+            operands.add(operand);
+        }
+    }
+
+    private Restriction getRestriction() {
+        Restriction result = restriction;
+        if (result == null) {
+            result = NO_RESTRICTION;
+            Restriction leftRestriction = restrictionOf(left);
+            Restriction rightRestriction = restrictionOf(right);
+            if (leftRestriction != null && rightRestriction != null
+                    && leftRestriction.operand.equals(rightRestriction.operand)) {
+                result = new Restriction(leftRestriction.operand,
+                        combine(Arrays.asList(leftRestriction.values, rightRestriction.values)));
+            }
+            restriction = result;
+        }
+        return result == NO_RESTRICTION ? null : result;
+    }
+
+    private static Restriction restrictionOf(LogicalExpression expression) {
+        if (expression instanceof ComparisonOperation) {
+            ComparisonOperation comparison = (ComparisonOperation) expression;
+            IntervalSet values = comparison.getValues();
+            return values == null ? null : new Restriction(comparison.getLeft(), values);
+        }
+        if (expression instanceof BoolOperation) {
+            return ((BoolOperation) expression).getRestriction();
+        }
+        return null;
     }
 
+    /**
+     * Combines sets of values of the same expression with this operation.
+     *
+     * @param sets sets of values restricted by operands
+     * @return {@link IntervalSet} of values restricted by the operation
+     */
+    abstract IntervalSet combine(List<IntervalSet> sets);
+
     /**
      * Tries to expand distributive laws.
      *
@@ -76,19 +195,22 @@ public abstract class BoolOperation extends BinaryOperation implements LogicalEx
     protected abstract LogicalExpression simplifyBoolean();
 
     /**
-     * Tries to simplify logic expression if both operands are comparison expressions with the same expression in the left part.
+     * Creates the canonical operation of the same type with the specified operands.
      *
-     * @return {@link LogicalExpression} simplified equivalent expression if the simplification is possible.
+     * @param left  left operand
+     * @param right right operand
+     * @return {@code BoolOperation} of the same type
      */
-    protected abstract LogicalExpression trySimplifyComparison(ComparisonOperation left, ComparisonOperation right);
+    abstract BoolOperation create(LogicalExpression left, LogicalExpression right);
 
     @Override
-    public String toString() {
-        return "(" + left.toString() + getSymbol() + right.toString() + ")";
+    public BoolOperation withOperands(Expression left, Expression right) {
+        if (left == this.left && right == this.right) {
+            return this;
+        }
+        return create((LogicalExpression) left, (LogicalExpression) right);
     }
 
-    protected abstract Character getSymbol();
-
     LogicalExpression commonSimplifyBoolean(boolean invert) {
         LogicalExpression returnIfLeft = invert ? right : left;
         LogicalExpression returnIfRight = invert ? left : right;
@@ -105,15 +227,20 @@ public abstract class BoolOperation extends BinaryOperation implements LogicalEx
         return right;
     }
 
-    public void setRight(Expression right) {
-        this.right = (LogicalExpression) right;
-    }
-
     public LogicalExpression getLeft() {
         return left;
     }
 
-    public void setLeft(Expression left) {
-        this.left = (LogicalExpression) left;
+    /**
+     * Set of values of expression compared with constants.
+     */
+    private static final class Restriction {
+        final ArithmeticExpression operand;
+        final IntervalSet values;
+
+        Restriction(ArithmeticExpression operand, IntervalSet values) {
+            this.operand = operand;
+            this.values = values;
+        }
     }
 }
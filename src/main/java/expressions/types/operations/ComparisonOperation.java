@@ -1,5 +1,6 @@
 package expressions.types.operations;
 
+import expressions.polynomial.Polynomial;
 import expressions.types.ArithmeticExpression;
 import expressions.types.LogicalExpression;
 import expressions.types.primitives.Bool;
@@ -7,7 +8,6 @@ import expressions.types.primitives.Const;
 import expressions.types.primitives.Element;
 import expressions.types.Expression;
 
-import java.util.Map;
 import java.util.function.BiFunction;
 
 /**
@@ -16,11 +16,17 @@ import java.util.function.BiFunction;
  */
 public abstract class ComparisonOperation extends BinaryOperation implements LogicalExpression {
 
-    protected ArithmeticExpression left, right;
+    protected final ArithmeticExpression left, right;
 
     private final BiFunction<Integer, Integer, Boolean> action;
 
+    /**
+     * Result of {@link #simplify()}, computed once because nodes are immutable and shared.
+     */
+    private LogicalExpression simplified;
+
     ComparisonOperation(ArithmeticExpression left, ArithmeticExpression right, BiFunction<Integer, Integer, Boolean> action) {
+        super(left, right);
         this.left = left;
         this.right = right;
         this.action = action;
@@ -28,59 +34,76 @@ public abstract class ComparisonOperation extends BinaryOperation implements Log
 
     @Override
     public LogicalExpression simplify() {
+        LogicalExpression result = simplified;
+        if (result == null) {
+            result = simplifyImpl();
+            simplified = result;
+        }
+        return result;
+    }
+
+    private LogicalExpression simplifyImpl() {
         ComparisonOperation result = simplifySummands();
         if (result.getLeft() instanceof Const && result.getRight() instanceof Const) {
-            return new Bool(action.apply(((Const) result.getLeft()).getValue(), ((Const) result.getRight()).getValue()));
+            return Bool.of(action.apply(((Const) result.getLeft()).getValue(), ((Const) result.getRight()).getValue()));
         }
         return result;
     }
 
     /**
      * Simplifies both of operands and constructs the equivalent expression in simplified form
-     * where left part depends on variable {@link Element} and right part is a constant {@link Const}
+     * where left part depends on variable {@link Element} and right part is a constant {@link Const}.
+     * For {@code <} and {@code >} the summands are moved as if values were unbounded integers,
+     * the result differs from the original comparison when their difference overflows {@code int}.
      *
      * @return {@code ComparisonOperation} in simplified form
      */
     private ComparisonOperation simplifySummands() {
-        ArithmeticExpression leftPart = (new Subtract(left, right)).simplify();
-        ArithmeticExpression rightPart = new Const(0);
-        if (leftPart instanceof ArithmeticOperation) {
-            Map<Integer, Integer> coefficientsByPow = ((ArithmeticOperation) leftPart).calcSummands();
-            int k = 0;
-            if (coefficientsByPow != null && coefficientsByPow.containsKey(0)) {
-                k = coefficientsByPow.get(0);
-            }
-            leftPart = (new Subtract(leftPart, new Const(k))).simplify();
-            rightPart = new Const(-k);
+        Polynomial difference = left.toPolynomial().subtract(right.toPolynomial());
+        if (difference.isConstant()) {
+            return create(difference.toExpression(), Const.of(0));
         }
-        try {
-            return getClass().getDeclaredConstructor(ArithmeticExpression.class, ArithmeticExpression.class)
-                    .newInstance(leftPart, rightPart);
-        } catch (Exception ignored) {
-        }
-        return this;
+        int k = difference.getConstant();
+        return create(difference.subtract(Polynomial.constant(k)).toExpression(), Const.of(-k));
     }
 
-    @Override
-    public String toString() {
-        return "(" + left.toString() + getSymbol() + right.toString() + ")";
+    /**
+     * Returns values of the left operand which satisfy this comparison.
+     *
+     * @return {@link IntervalSet} of values or {@code null} if the right operand is not a constant
+     */
+    public IntervalSet getValues() {
+        return right instanceof Const ? values(((Const) right).getValue()) : null;
     }
 
-    protected abstract Character getSymbol();
+    /**
+     * @param constant value of the right operand
+     * @return {@link IntervalSet} of values of the left operand which satisfy comparison with {@code constant}
+     */
+    abstract IntervalSet values(int constant);
+
+    /**
+     * Creates the canonical comparison of the same type with the specified operands.
+     *
+     * @param left  left operand
+     * @param right right operand
+     * @return {@code ComparisonOperation} of the same type
+     */
+    abstract ComparisonOperation create(ArithmeticExpression left, ArithmeticExpression right);
 
-    public ArithmeticExpression getRight() {
-        return right;
+    @Override
+    public ComparisonOperation withOperands(Expression left, Expression right) {
+        if (left == this.left && right == this.right) {
+            return this;
+        }
+        return create((ArithmeticExpression) left, (ArithmeticExpression) right);
     }
 
-    public void setRight(Expression right) {
-        this.right = (ArithmeticExpression) right;
+    public ArithmeticExpression getRight() {
+        return right;
     }
 
     public ArithmeticExpression getLeft() {
         return left;
     }
-
-    public void setLeft(Expression left) {
-        this.left = (ArithmeticExpression) left;
-    }
 }
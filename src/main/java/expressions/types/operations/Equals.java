@@ -1,15 +1,30 @@
 package expressions.types.operations;
 
 import expressions.types.ArithmeticExpression;
+import expressions.types.Interner;
 
 public class Equals extends ComparisonOperation {
 
-    public Equals(ArithmeticExpression left, ArithmeticExpression right) {
+    private Equals(ArithmeticExpression left, ArithmeticExpression right) {
         super(left, right, Integer::equals);
     }
 
+    public static Equals of(ArithmeticExpression left, ArithmeticExpression right) {
+        return Interner.intern(new Equals(left, right));
+    }
+
+    @Override
+    Equals create(ArithmeticExpression left, ArithmeticExpression right) {
+        return of(left, right);
+    }
+
+    @Override
+    IntervalSet values(int constant) {
+        return IntervalSet.equal(constant);
+    }
+
     @Override
-    protected Character getSymbol() {
+    public Character getSymbol() {
         return '=';
     }
 }
\ No newline at end of file
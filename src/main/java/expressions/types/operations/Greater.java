@@ -1,15 +1,30 @@
 package expressions.types.operations;
 
 import expressions.types.ArithmeticExpression;
+import expressions.types.Interner;
 
 public class Greater extends ComparisonOperation {
 
-    public Greater(ArithmeticExpression left, ArithmeticExpression right) {
+    private Greater(ArithmeticExpression left, ArithmeticExpression right) {
         super(left, right, (a, b) -> a > b);
     }
 
+    public static Greater of(ArithmeticExpression left, ArithmeticExpression right) {
+        return Interner.intern(new Greater(left, right));
+    }
+
+    @Override
+    Greater create(ArithmeticExpression left, ArithmeticExpression right) {
+        return of(left, right);
+    }
+
+    @Override
+    IntervalSet values(int constant) {
+        return IntervalSet.greater(constant);
+    }
+
     @Override
-    protected Character getSymbol() {
+    public Character getSymbol() {
         return '>';
     }
 }
\ No newline at end of file
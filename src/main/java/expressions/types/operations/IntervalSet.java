@@ -0,0 +1,173 @@
+package expressions.types.operations;
+
+import expressions.types.ArithmeticExpression;
+import expressions.types.LogicalExpression;
+import expressions.types.primitives.Bool;
+import expressions.types.primitives.Const;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable set of {@code int} values stored as sorted disjoint closed intervals.
+ * Adjacent intervals are always merged, so every set has the unique representation.
+ */
+public final class IntervalSet {
+
+    private static final int[] EMPTY_BOUNDS = new int[0];
+
+    public static final IntervalSet EMPTY = new IntervalSet(EMPTY_BOUNDS);
+    public static final IntervalSet ALL = new IntervalSet(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE});
+
+    /**
+     * Interval {@code i} is {@code [bounds[2 * i], bounds[2 * i + 1]]}.
+     */
+    private final int[] bounds;
+
+    private IntervalSet(int[] bounds) {
+        this.bounds = bounds;
+    }
+
+    public static IntervalSet of(int from, int to) {
+        return from > to ? EMPTY : new IntervalSet(new int[]{from, to});
+    }
+
+    public static IntervalSet less(int value) {
+        return value == Integer.MIN_VALUE ? EMPTY : of(Integer.MIN_VALUE, value - 1);
+    }
+
+    public static IntervalSet greater(int value) {
+        return value == Integer.MAX_VALUE ? EMPTY : of(value + 1, Integer.MAX_VALUE);
+    }
+
+    public static IntervalSet equal(int value) {
+        return of(value, value);
+    }
+
+    /**
+     * @return number of disjoint intervals
+     */
+    public int size() {
+        return bounds.length / 2;
+    }
+
+    /**
+     * @return the lowest value of the interval {@code index}
+     */
+    public int getFrom(int index) {
+        return bounds[2 * index];
+    }
+
+    /**
+     * @return the highest value of the interval {@code index}
+     */
+    public int getTo(int index) {
+        return bounds[2 * index + 1];
+    }
+
+    public IntervalSet intersect(IntervalSet other) {
+        int[] result = new int[bounds.length + other.bounds.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < bounds.length && j < other.bounds.length) {
+            int from = Math.max(bounds[i], other.bounds[j]);
+            int to = Math.min(bounds[i + 1], other.bounds[j + 1]);
+            if (from <= to) {
+                result[size++] = from;
+                result[size++] = to;
+            }
+            if (bounds[i + 1] < other.bounds[j + 1]) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return of(result, size);
+    }
+
+    /**
+     * Sorts all intervals of the sets by the lower bound and merges overlapping and adjacent ones.
+     *
+     * @param sets sets to unite
+     * @return {@code IntervalSet} containing values of all the sets
+     */
+    public static IntervalSet union(List<IntervalSet> sets) {
+        int count = 0;
+        for (IntervalSet set : sets) {
+            count += set.bounds.length / 2;
+        }
+        long[] intervals = new long[count];
+        int k = 0;
+        for (IntervalSet set : sets) {
+            for (int i = 0; i < set.bounds.length; i += 2) {
+                intervals[k++] = ((long) set.bounds[i] << 32) | (set.bounds[i + 1] & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(intervals);
+        int[] result = new int[2 * count];
+        int size = 0;
+        for (long interval : intervals) {
+            int from = (int) (interval >> 32);
+            int to = (int) interval;
+            if (size > 0 && from <= (long) result[size - 1] + 1) {
+                result[size - 1] = Math.max(result[size - 1], to);
+            } else {
+                result[size++] = from;
+                result[size++] = to;
+            }
+        }
+        return of(result, size);
+    }
+
+    private static IntervalSet of(int[] bounds, int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        return new IntervalSet(size == bounds.length ? bounds : Arrays.copyOf(bounds, size));
+    }
+
+    /**
+     * Generates the shortest comparisons of {@code operand} with constants which are true exactly on this set.
+     * Intervals are joined with '|' in descending order, the interval unbounded on one side needs one comparison.
+     *
+     * @param operand expression whose values are restricted
+     * @return equivalent {@link LogicalExpression}
+     */
+    public LogicalExpression toExpression(ArithmeticExpression operand) {
+        if (bounds.length == 0) {
+            return Bool.of(false);
+        }
+        LogicalExpression result = null;
+        for (int i = bounds.length - 2; i >= 0; i -= 2) {
+            LogicalExpression interval = intervalToExpression(operand, bounds[i], bounds[i + 1]);
+            result = result == null ? interval : Or.of(result, interval);
+        }
+        return result;
+    }
+
+    private static LogicalExpression intervalToExpression(ArithmeticExpression operand, int from, int to) {
+        if (from == to) {
+            return Equals.of(operand, Const.of(from));
+        }
+        if (from == Integer.MIN_VALUE) {
+            return to == Integer.MAX_VALUE ? Bool.of(true) : Less.of(operand, Const.of(to + 1));
+        }
+        if (to == Integer.MAX_VALUE) {
+            return Greater.of(operand, Const.of(from - 1));
+        }
+        return And.of(Greater.of(operand, Const.of(from - 1)), Less.of(operand, Const.of(to + 1)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(bounds, ((IntervalSet) o).bounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bounds);
+    }
+}
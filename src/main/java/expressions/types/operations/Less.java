@@ -1,15 +1,30 @@
 package expressions.types.operations;
 
 import expressions.types.ArithmeticExpression;
+import expressions.types.Interner;
 
 public class Less extends ComparisonOperation {
 
-    public Less(ArithmeticExpression left, ArithmeticExpression right) {
+    private Less(ArithmeticExpression left, ArithmeticExpression right) {
         super(left, right, (a, b) -> a < b);
     }
 
+    public static Less of(ArithmeticExpression left, ArithmeticExpression right) {
+        return Interner.intern(new Less(left, right));
+    }
+
+    @Override
+    Less create(ArithmeticExpression left, ArithmeticExpression right) {
+        return of(left, right);
+    }
+
+    @Override
+    IntervalSet values(int constant) {
+        return IntervalSet.less(constant);
+    }
+
     @Override
-    protected Character getSymbol() {
+    public Character getSymbol() {
         return '<';
     }
 }
\ No newline at end of file
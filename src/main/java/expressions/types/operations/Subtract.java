@@ -1,31 +1,31 @@
 package expressions.types.operations;
 
+import expressions.polynomial.Polynomial;
 import expressions.types.ArithmeticExpression;
-
-import java.util.Map;
+import expressions.types.Interner;
 
 public class Subtract extends ArithmeticOperation {
 
-    public Subtract(ArithmeticExpression left, ArithmeticExpression right) {
-        super(left, right, (a, b) -> a - b);
+    private Subtract(ArithmeticExpression left, ArithmeticExpression right) {
+        super(left, right);
+    }
+
+    public static Subtract of(ArithmeticExpression left, ArithmeticExpression right) {
+        return Interner.intern(new Subtract(left, right));
     }
 
     @Override
-    protected ArithmeticExpression toPolynomialImpl() {
-        if (equals(right, 0)) {
-            return left;
-        }
-        return this;
+    Subtract create(ArithmeticExpression left, ArithmeticExpression right) {
+        return of(left, right);
     }
 
     @Override
-    protected void processCoefficients(Map<Integer, Integer> coefficientByPow, int sign) {
-        processAddOrSubtract(left, sign, coefficientByPow);
-        processAddOrSubtract(right, -sign, coefficientByPow);
+    Polynomial apply(Polynomial left, Polynomial right) {
+        return left.subtract(right);
     }
 
     @Override
-    protected Character getSymbol() {
+    public Character getSymbol() {
         return '-';
     }
-}
\ No newline at end of file
+}
@@ -4,12 +4,19 @@ import expressions.types.LogicalExpression;
 import expressions.types.Expression;
 
 public class Bool implements LogicalExpression {
-    private boolean value;
+    private static final Bool TRUE = new Bool(true);
+    private static final Bool FALSE = new Bool(false);
 
-    public Bool(boolean value) {
+    private final boolean value;
+
+    private Bool(boolean value) {
         this.value = value;
     }
 
+    public static Bool of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
     @Override
     public Expression simplify() {
         return this;
@@ -26,4 +33,9 @@ public class Bool implements LogicalExpression {
         }
         return "(1=0)";
     }
+
+    @Override
+    public int hashCode() {
+        return Boolean.hashCode(value);
+    }
 }
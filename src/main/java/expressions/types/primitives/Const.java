@@ -1,15 +1,21 @@
 package expressions.types.primitives;
 
+import expressions.polynomial.Polynomial;
 import expressions.types.ArithmeticExpression;
 import expressions.types.Expression;
+import expressions.types.Interner;
 
 public class Const implements ArithmeticExpression {
-    private int value;
+    private final int value;
 
-    public Const(int value) {
+    private Const(int value) {
         this.value = value;
     }
 
+    public static Const of(int value) {
+        return Interner.intern(new Const(value));
+    }
+
     public int getValue() {
         return value;
     }
@@ -19,6 +25,11 @@ public class Const implements ArithmeticExpression {
         return this;
     }
 
+    @Override
+    public Polynomial toPolynomial() {
+        return Polynomial.constant(value);
+    }
+
     @Override
     public String toString() {
         return Integer.toString(value);
@@ -31,4 +42,9 @@ public class Const implements ArithmeticExpression {
         Const that = (Const) obj;
         return value == that.value;
     }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
 }
@@ -1,18 +1,24 @@
 package expressions.types.primitives;
 
+import expressions.polynomial.Polynomial;
 import expressions.types.ArithmeticExpression;
 import expressions.types.Expression;
-import expressions.types.operations.Multiply;
+import expressions.types.ExpressionWriter;
+import expressions.types.Interner;
 
 public class Element implements ArithmeticExpression {
-    private int pow;
+    private final int pow;
 
-    public Element(int pow) {
+    private Element(int pow) {
         this.pow = pow;
     }
 
-    public Element() {
-        this(1);
+    public static Element of(int pow) {
+        return Interner.intern(new Element(pow));
+    }
+
+    public static Element of() {
+        return of(1);
     }
 
     @Override
@@ -20,6 +26,11 @@ public class Element implements ArithmeticExpression {
         return this;
     }
 
+    @Override
+    public Polynomial toPolynomial() {
+        return Polynomial.monomial(1, pow);
+    }
+
     public int getPow() {
         return pow;
     }
@@ -29,11 +40,7 @@ public class Element implements ArithmeticExpression {
         if (pow == 1) {
             return "element";
         }
-        ArithmeticExpression result = new Element();
-        for (int i = 1; i < pow; i++) {
-            result = new Multiply(result, new Element());
-        }
-        return result.toString();
+        return ExpressionWriter.toString(this);
     }
 
     @Override
@@ -43,4 +50,9 @@ public class Element implements ArithmeticExpression {
         Element element = (Element) obj;
         return pow == element.pow;
     }
+
+    @Override
+    public int hashCode() {
+        return 31 * pow + 7;
+    }
 }
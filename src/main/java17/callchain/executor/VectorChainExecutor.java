@@ -0,0 +1,236 @@
+package callchain.executor;
+
+import callchain.converter.ConvertedChain;
+import expressions.polynomial.Polynomial;
+import expressions.types.LogicalExpression;
+import expressions.types.operations.And;
+import expressions.types.operations.BoolOperation;
+import expressions.types.operations.ComparisonOperation;
+import expressions.types.operations.Equals;
+import expressions.types.operations.Less;
+import expressions.types.primitives.Bool;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ArrayExecutor} processing {@link IntVector#SPECIES_PREFERRED} elements at once.
+ * Every distinct polynomial of the filter is evaluated by Horner's scheme with vector multiply-add,
+ * comparisons and logical operations of the filter give the lane mask, and mapped values of the lanes
+ * passed the filter are compacted into the output. Elements left after the last full vector are processed
+ * by {@link ChainExecutor}. Arithmetic wraps around as Java {@code int}, so results are the same as of the scalar path.
+ * <p>
+ * The class is compiled only into the Java 17 part of the multi-release build, use
+ * {@link ChainExecutor#vectorized(ConvertedChain)} to create it.
+ */
+public final class VectorChainExecutor implements ArrayExecutor {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private static final int TRUE = 0;
+    private static final int FALSE = 1;
+    private static final int LESS = 2;
+    private static final int GREATER = 3;
+    private static final int EQUALS = 4;
+    private static final int AND = 5;
+    private static final int OR = 6;
+
+    private final ChainExecutor scalar;
+
+    /**
+     * Terms of the distinct polynomials of the filter.
+     */
+    private final int[][] pows;
+    private final int[][] coefficients;
+
+    private final int[] mapPows;
+    private final int[] mapCoefficients;
+
+    /**
+     * Filter in postfix order, comparisons are followed by indices of polynomials of their operands.
+     */
+    private final int[] filterCode;
+    private final int maskStackSize;
+
+    public VectorChainExecutor(ConvertedChain chain) {
+        scalar = new ChainExecutor(chain);
+        FilterBuilder builder = new FilterBuilder();
+        maskStackSize = builder.emit(chain.getFilter());
+        filterCode = builder.code.stream().mapToInt(Integer::intValue).toArray();
+        pows = new int[builder.polynomials.size()][];
+        coefficients = new int[pows.length][];
+        for (int i = 0; i < pows.length; i++) {
+            Polynomial polynomial = builder.polynomials.get(i);
+            pows[i] = powsOf(polynomial);
+            coefficients[i] = coefficientsOf(polynomial);
+        }
+        Polynomial map = chain.getMap().toPolynomial();
+        mapPows = powsOf(map);
+        mapCoefficients = coefficientsOf(map);
+    }
+
+    @Override
+    public int execute(int[] input, int from, int to, int[] output, int outputOffset) {
+        if (from < 0 || from > to || to > input.length) {
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ") of input of length " + input.length);
+        }
+        if (outputOffset < 0 || output.length - outputOffset < to - from) {
+            throw new IndexOutOfBoundsException("Output of length " + output.length + " has no room for "
+                    + (to - from) + " values from index " + outputOffset);
+        }
+        int length = SPECIES.length();
+        IntVector[] values = new IntVector[pows.length];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        VectorMask<Integer>[] masks = new VectorMask[maskStackSize];
+        int[] mapped = new int[length];
+        int size = outputOffset;
+        int bound = from + SPECIES.loopBound(to - from);
+        int i = from;
+        for (; i < bound; i += length) {
+            IntVector element = IntVector.fromArray(SPECIES, input, i);
+            for (int p = 0; p < values.length; p++) {
+                values[p] = evaluate(pows[p], coefficients[p], element);
+            }
+            VectorMask<Integer> mask = filter(values, masks);
+            if (!mask.anyTrue()) {
+                continue;
+            }
+            IntVector result = evaluate(mapPows, mapCoefficients, element);
+            if (mask.allTrue()) {
+                result.intoArray(output, size);
+                size += length;
+            } else {
+                result.intoArray(mapped, 0);
+                for (long lanes = mask.toLong(); lanes != 0; lanes &= lanes - 1) {
+                    output[size++] = mapped[Long.numberOfTrailingZeros(lanes)];
+                }
+            }
+        }
+        size += scalar.execute(input, i, to, output, size);
+        return size - outputOffset;
+    }
+
+    private VectorMask<Integer> filter(IntVector[] values, VectorMask<Integer>[] masks) {
+        int sp = 0;
+        int pc = 0;
+        while (pc < filterCode.length) {
+            switch (filterCode[pc++]) {
+                case TRUE:
+                    masks[sp++] = SPECIES.maskAll(true);
+                    break;
+                case FALSE:
+                    masks[sp++] = SPECIES.maskAll(false);
+                    break;
+                case LESS:
+                    masks[sp++] = values[filterCode[pc++]].compare(VectorOperators.LT, values[filterCode[pc++]]);
+                    break;
+                case GREATER:
+                    masks[sp++] = values[filterCode[pc++]].compare(VectorOperators.GT, values[filterCode[pc++]]);
+                    break;
+                case EQUALS:
+                    masks[sp++] = values[filterCode[pc++]].compare(VectorOperators.EQ, values[filterCode[pc++]]);
+                    break;
+                case AND:
+                    sp--;
+                    masks[sp - 1] = masks[sp - 1].and(masks[sp]);
+                    break;
+                case OR:
+                    sp--;
+                    masks[sp - 1] = masks[sp - 1].or(masks[sp]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown opcode " + filterCode[pc - 1]);
+            }
+        }
+        return masks[0];
+    }
+
+    /**
+     * Horner's scheme over sparse terms: gaps between powers are filled with powers of {@code element}.
+     */
+    private static IntVector evaluate(int[] pows, int[] coefficients, IntVector element) {
+        int last = pows.length - 1;
+        if (last < 0) {
+            return IntVector.zero(SPECIES);
+        }
+        IntVector result = IntVector.broadcast(SPECIES, coefficients[last]);
+        for (int i = last - 1; i >= 0; i--) {
+            result = result.mul(power(element, pows[i + 1] - pows[i])).add(coefficients[i]);
+        }
+        return pows[0] == 0 ? result : result.mul(power(element, pows[0]));
+    }
+
+    private static IntVector power(IntVector base, int pow) {
+        if (pow == 1) {
+            return base;
+        }
+        IntVector result = null;
+        while (pow != 0) {
+            if ((pow & 1) != 0) {
+                result = result == null ? base : result.mul(base);
+            }
+            pow >>>= 1;
+            if (pow != 0) {
+                base = base.mul(base);
+            }
+        }
+        return result;
+    }
+
+    private static int[] powsOf(Polynomial polynomial) {
+        int[] result = new int[polynomial.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = polynomial.getPow(i);
+        }
+        return result;
+    }
+
+    private static int[] coefficientsOf(Polynomial polynomial) {
+        int[] result = new int[polynomial.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = polynomial.getCoefficient(i);
+        }
+        return result;
+    }
+
+    private static final class FilterBuilder {
+        private final List<Integer> code = new ArrayList<>();
+        private final List<Polynomial> polynomials = new ArrayList<>();
+        private final Map<Polynomial, Integer> indices = new HashMap<>();
+
+        /**
+         * @return maximal depth of the mask stack needed to evaluate {@code expression}
+         */
+        int emit(LogicalExpression expression) {
+            if (expression instanceof Bool) {
+                code.add(((Bool) expression).isTrue() ? TRUE : FALSE);
+                return 1;
+            }
+            if (expression instanceof ComparisonOperation) {
+                ComparisonOperation comparison = (ComparisonOperation) expression;
+                code.add(comparison instanceof Less ? LESS : comparison instanceof Equals ? EQUALS : GREATER);
+                code.add(indexOf(comparison.getLeft().toPolynomial()));
+                code.add(indexOf(comparison.getRight().toPolynomial()));
+                return 1;
+            }
+            BoolOperation operation = (BoolOperation) expression;
+            int leftDepth = emit(operation.getLeft());
+            int rightDepth = emit(operation.getRight());
+            code.add(operation instanceof And ? AND : OR);
+            return Math.max(leftDepth, rightDepth + 1);
+        }
+
+        private int indexOf(Polynomial polynomial) {
+            return indices.computeIfAbsent(polynomial, p -> {
+                polynomials.add(p);
+                return polynomials.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package callchain.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * {@link ConversionListener} committing {@link ConversionEvent} for every conversion while the event is enabled
+ * in the recording. It is registered by {@link ConversionMetrics#enableFlightRecorder()}.
+ */
+public final class FlightRecorderListener implements ConversionListener {
+
+    @Override
+    public void conversionFinished(ConversionRecord record) {
+        ConversionEvent event = new ConversionEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.inputLength = record.getInputLength();
+        event.outputLength = record.getOutputLength();
+        event.nodesBefore = record.getNodesBefore();
+        event.nodesAfter = record.getNodesAfter();
+        event.errorType = record.getErrorType();
+        event.parseTime = record.getNanos(Phase.PARSE);
+        event.substituteTime = record.getNanos(Phase.SUBSTITUTE);
+        event.arithmeticTime = record.getNanos(Phase.ARITHMETIC);
+        event.logicTime = record.getNanos(Phase.LOGIC);
+        event.renderTime = record.getNanos(Phase.RENDER);
+        event.totalTime = record.getTotalNanos();
+        event.commit();
+    }
+
+    @Name("callchain.Conversion")
+    @Label("Call Chain Conversion")
+    @Description("Conversion of a call chain with times of its phases")
+    @Category("Call Chain")
+    @StackTrace(false)
+    static final class ConversionEvent extends Event {
+        @Label("Input Length")
+        int inputLength;
+
+        @Label("Output Length")
+        int outputLength;
+
+        @Label("Nodes Before")
+        int nodesBefore;
+
+        @Label("Nodes After")
+        int nodesAfter;
+
+        @Label("Error Type")
+        String errorType;
+
+        @Label("Parse Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long parseTime;
+
+        @Label("Substitution Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long substituteTime;
+
+        @Label("Arithmetic Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long arithmeticTime;
+
+        @Label("Logic Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long logicTime;
+
+        @Label("Render Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long renderTime;
+
+        @Label("Total Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long totalTime;
+    }
+}
@@ -0,0 +1,60 @@
+import callchain.converter.BatchConverter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Tests of parallel batch conversion")
+class BatchConverterTest {
+
+    private static final List<String> CHAINS = Arrays.asList(
+            "map{(element+10)}%>%filter{(element>10)}%>%map{(element*element)}",
+            "filter{(element>10)}%>%filter{(element<20)}",
+            "map{(1+1)(1+1)}",
+            "filter{(element+1)}",
+            "map{(element*element)}%>%map{(element*element)}%>%map{(element*element)}"
+    );
+
+    private static List<String> generateInput(int size) {
+        List<String> input = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            input.add(CHAINS.get(i % CHAINS.size()));
+        }
+        return input;
+    }
+
+    private static List<String> convertSequentially(List<String> input) {
+        List<String> expected = new ArrayList<>(input.size());
+        for (String chain : input) {
+            expected.add(BatchConverter.convertLine(CallChainConverter::convert, chain));
+        }
+        return expected;
+    }
+
+    @Test
+    @DisplayName("Results of convertAll keep the input order")
+    void testConvertAllKeepsOrder() {
+        List<String> input = generateInput(5000);
+        assertEquals(convertSequentially(input), CallChainConverter.convertAll(input));
+    }
+
+    @Test
+    @DisplayName("Streaming conversion writes one line per input line in the input order")
+    void testStreamingConversion() throws IOException {
+        List<String> input = generateInput(3000);
+        StringWriter output = new StringWriter();
+        try (BatchConverter converter = new BatchConverter(CallChainConverter::convert, 3, 2)) {
+            converter.convertAll(new BufferedReader(new StringReader(String.join("\n", input))), output);
+        }
+        List<String> actual = Arrays.asList(output.toString().split(System.lineSeparator()));
+        assertEquals(convertSequentially(input), actual);
+    }
+}
@@ -1,3 +1,5 @@
+import callchain.converter.ChainAccumulator;
+import callchain.converter.LogicBackend;
 import exceptions.InvalidSyntaxException;
 import exceptions.InvalidTypeException;
 import org.junit.jupiter.api.DisplayName;
@@ -6,9 +8,13 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DisplayName("Positive tests of <сall-сhain> converter")
 class CallChainConverterTest {
@@ -143,11 +149,93 @@ class CallChainConverterTest {
                 Arguments.of(
                         "filter{(element>0)}%>%filter{((element<0)|(element>0))}%>%filter{(element=2)}%>%filter{(element<5)}",
                         "filter{(element=2)}%>%map{element}"
+                ),
+                Arguments.of(
+                        "filter{((element<5)&(element>0))}",
+                        "filter{((element>0)&(element<5))}%>%map{element}"
+                ),
+                Arguments.of(
+                        "filter{(((element=1)|(element=5))|((element=3)|(element=2)))}",
+                        "filter{((element=5)|((element>0)&(element<4)))}%>%map{element}"
+                ),
+                Arguments.of(
+                        "filter{((element<-2147483647)|(element>2147483646))}",
+                        "filter{((element=2147483647)|(element=-2147483648))}%>%map{element}"
+                ),
+                Arguments.of(
+                        "filter{(((element>3)&((element*element)>0))&(element<10))}",
+                        "filter{(((element>3)&(element<10))&((element*element)>0))}%>%map{element}"
+                ),
+                Arguments.of(
+                        IntStream.range(0, 200)
+                                .mapToObj(i -> "filter{(element>" + i + ")}%>%filter{(element<" + (1000 - i) + ")}")
+                                .collect(Collectors.joining("%>%")),
+                        "filter{((element>199)&(element<801))}%>%map{element}"
                 )
         );
 
     }
 
+    @DisplayName("Calls appended one by one give the same result as conversion of the chain")
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @MethodSource({"mixedTestsArguments", "logicalExpressionsSimplificationArguments",
+            "arithmeticExpressionsSimplificationArguments"})
+    void testAccumulator(String source, String expected) throws InvalidSyntaxException, InvalidTypeException {
+        ChainAccumulator accumulator = new ChainAccumulator();
+        for (String call : source.split("%>%")) {
+            accumulator.append(call);
+        }
+        assertEquals(accumulator.toString(), expected);
+    }
+
+    @Test
+    @DisplayName("Snapshots of accumulator continue independently")
+    void testAccumulatorSnapshots() throws InvalidSyntaxException, InvalidTypeException {
+        ChainAccumulator base = new ChainAccumulator().append("map{(element+1)}");
+        ChainAccumulator branch = base.snapshot().append("filter{(element>2)}");
+        base.append("map{(element*2)}");
+        assertThrows(InvalidTypeException.class, () -> base.append("filter{(element<1)}%>%map{(element>1)}"));
+        assertEquals(branch.toString(), CallChainConverter.convert("map{(element+1)}%>%filter{(element>2)}"));
+        assertEquals(base.toString(), CallChainConverter.convert("map{(element+1)}%>%map{(element*2)}"));
+        assertEquals(base.getCallCount(), 2);
+    }
+
+    @DisplayName("Simplification of filters with BDD backend")
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @MethodSource("bddTestsArguments")
+    void testBddBackend(String source, String expected) throws InvalidSyntaxException, InvalidTypeException {
+        assertEquals(CallChainConverter.convert(source, LogicBackend.BDD), expected);
+    }
+
+    private static Stream<Arguments> bddTestsArguments() {
+        return Stream.of(
+                Arguments.of(
+                        "filter{((element<3)|(element>1))}",
+                        "filter{(0=0)}%>%map{element}"
+                ),
+                Arguments.of(
+                        "filter{(((element*element)>4)&((element*element)<5))}",
+                        "filter{(1=0)}%>%map{element}"
+                ),
+                Arguments.of(
+                        "map{(element+1)}%>%filter{((element>2)|(element<0))}%>%map{(element*element)}",
+                        "filter{((element>1)|(element<-1))}%>%map{((1+(2*element))+(element*element))}"
+                ),
+                Arguments.of(
+                        "filter{((((element*element)<100)|(element=1))&(((element*element)>4)&(element>0)))}",
+                        "filter{((((element*element)>99)&(element=1))|((((element*element)>4)&((element*element)<100))&(element>0)))}%>%map{element}"
+                ),
+                Arguments.of(
+                        IntStream.range(0, 40)
+                                .mapToObj(i -> "filter{((element>" + (i % 5) + ")|((element*element)<" + (10 + i) + "))}")
+                                .collect(Collectors.joining("%>%")),
+                        "filter{((((((element>4)|((element=4)&((element*element)<14)))|((element=3)&((element*element)<13)))"
+                                + "|((element=2)&((element*element)<12)))|((element=1)&((element*element)<11)))"
+                                + "|((element<1)&((element*element)<10)))}%>%map{element}"
+                )
+        );
+    }
+
     @DisplayName("Simplification of arithmetic expressions")
     @ParameterizedTest(name = "{index} test: source={0}")
     @MethodSource("arithmeticExpressionsSimplificationArguments")
@@ -241,6 +329,14 @@ class CallChainConverterTest {
                 Arguments.of(
                         "map{(element*element)}%>%map{(element*element)}%>%map{(element*element)}%>%map{(element-1)}%>%map{(5*element)}",
                         "filter{(0=0)}%>%map{(-5+(5*(((((((element*element)*element)*element)*element)*element)*element)*element)))}"
+                ),
+                Arguments.of(
+                        String.join("%>%", Collections.nCopies(20, "map{(element*element)}")) + "%>%map{(element-element)}",
+                        "filter{(0=0)}%>%map{0}"
+                ),
+                Arguments.of(
+                        String.join("%>%", Collections.nCopies(10, "map{((element+1)*(element-1))}")) + "%>%filter{(element<element)}",
+                        "filter{(1=0)}%>%map{element}"
                 )
         );
 
@@ -1,3 +1,5 @@
+import callchain.converter.ConversionResult;
+import exceptions.ConversionException;
 import exceptions.InvalidSyntaxException;
 import exceptions.InvalidTypeException;
 import org.junit.jupiter.api.DisplayName;
@@ -6,9 +8,17 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("Negative tests of <сall-сhain> converter")
 class CallChainExceptionsTest {
@@ -95,6 +105,18 @@ class CallChainExceptionsTest {
                 Arguments.of(
                         "map{(1+1)(1+1)}"
                 ),
+                Arguments.of(
+                        "map{(3&element) }"
+                ),
+                Arguments.of(
+                        "map{((element<(element+element))+-5)-2}"
+                ),
+                Arguments.of(
+                        "map{(element-((element*element*)>x))}"
+                ),
+                Arguments.of(
+                        "filter{-}"
+                ),
                 Arguments.of(
                         "map{(1+1)}%>%filter"
                 ),
@@ -127,6 +149,33 @@ class CallChainExceptionsTest {
         assertThrows(InvalidTypeException.class, () -> CallChainConverter.convert(source));
     }
 
+    @DisplayName("Syntax error results tests")
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @MethodSource("testSyntaxExceptionArguments")
+    void testSyntaxErrorResult(String source) {
+        checkErrorResult(source, ConversionResult.ErrorKind.SYNTAX,
+                assertThrows(InvalidSyntaxException.class, () -> CallChainConverter.convert(source)));
+    }
+
+    @DisplayName("Type error results tests")
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @MethodSource("testTypeExceptionArguments")
+    void testTypeErrorResult(String source) {
+        checkErrorResult(source, ConversionResult.ErrorKind.TYPE,
+                assertThrows(InvalidTypeException.class, () -> CallChainConverter.convert(source)));
+    }
+
+    private static void checkErrorResult(String source, ConversionResult.ErrorKind kind, ConversionException exception) {
+        ConversionResult result = CallChainConverter.tryConvert(source);
+        assertFalse(result.isSuccess());
+        assertEquals(kind, result.getErrorKind());
+        assertEquals(exception.getMessage(), result.getErrorMessage());
+        assertEquals(exception.getPosition(), result.getErrorPosition());
+        assertTrue(result.getErrorPosition() >= 0 && result.getErrorPosition() <= source.length());
+        assertEquals(0, exception.getStackTrace().length);
+        assertThrows(IllegalStateException.class, result::getValue);
+    }
+
     private static Stream<Arguments> testTypeExceptionArguments() {
         return Stream.of(
                 Arguments.of(
@@ -228,4 +277,44 @@ class CallChainExceptionsTest {
         );
     }
 
+
+    @DisplayName("Syntax errors are reported before type errors of the same operation")
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @MethodSource("testErrorMessageArguments")
+    void testErrorMessage(String source, String message) {
+        assertEquals(message, assertThrows(InvalidSyntaxException.class, () -> CallChainConverter.convert(source)).getMessage());
+    }
+
+    private static Stream<Arguments> testErrorMessageArguments() {
+        return Stream.of(
+                Arguments.of(
+                        "map{(3&element) }",
+                        "Invalid braces arrangement: every binary expression of expression + <(3&element) > must be in braces"
+                ),
+                Arguments.of(
+                        "map{((element<(element+element))+-5)-2}",
+                        "Invalid braces arrangement: every binary expression of expression + <((element<(element+element))+-5)-2> must be in braces"
+                ),
+                Arguments.of(
+                        "map{(element-((element*element*)>x))}",
+                        "Before position 27 in expression <(element-((element*element*)>x))> primitive was expected"
+                )
+        );
+    }
+
+    @Test
+    @DisplayName("Errors with unformatted messages are serializable")
+    void testSerialization() throws IOException, ClassNotFoundException {
+        String source = "map{(element+1)}%>%filter{element}";
+        InvalidTypeException exception = assertThrows(InvalidTypeException.class, () -> CallChainConverter.convert(source));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(exception);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            InvalidTypeException copy = (InvalidTypeException) in.readObject();
+            assertEquals(exception.getMessage(), copy.getMessage());
+            assertEquals(exception.getPosition(), copy.getPosition());
+        }
+    }
 }
@@ -0,0 +1,94 @@
+import callchain.converter.ConvertedChain;
+import callchain.executor.ChainCompiler;
+import callchain.executor.ChainExecutor;
+import callchain.executor.CompiledChain;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import expressions.types.ArithmeticExpression;
+import expressions.types.operations.Add;
+import expressions.types.primitives.Bool;
+import expressions.types.primitives.Const;
+import expressions.types.primitives.Element;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("Tests of compilation of converted chains into JVM classes")
+class ChainCompilerTest {
+
+    private static int[] randomInput(int size) {
+        Random random = new Random(42);
+        int[] input = new int[size];
+        for (int i = 0; i < size; i++) {
+            input[i] = i % 2 == 0 ? random.nextInt(201) - 100 : random.nextInt();
+        }
+        return input;
+    }
+
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @DisplayName("Compiled chain gives the same result as the interpreter")
+    @ValueSource(strings = {
+            "map{(element+1)}%>%filter{(element>2)}%>%map{(element*element)}",
+            "filter{((element>5)|(element<-5))}%>%filter{(element>-10)}",
+            "map{(element*65536)}%>%filter{((element*65536)=0)}%>%map{(element*1000000007)}",
+            "map{(((element*element)*element)-100000)}%>%filter{(((element*element)<40000)|(element=-2147483648))}",
+            "filter{(element<element)}",
+            "map{(element-7)}"
+    })
+    void testSameAsInterpreter(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        int[] input = randomInput(10000);
+        int[] expected = new int[input.length];
+        int expectedSize = ChainExecutor.compile(callChain).execute(input, expected);
+
+        CompiledChain compiled = new ChainCompiler(16).compile(callChain);
+        int[] output = new int[input.length];
+        assertEquals(expectedSize, compiled.process(input, output));
+        assertArrayEquals(Arrays.copyOf(expected, expectedSize), Arrays.copyOf(output, expectedSize));
+        int[] single = Arrays.stream(input).filter(compiled).map(compiled).toArray();
+        assertArrayEquals(Arrays.copyOf(expected, expectedSize), single);
+    }
+
+    @Test
+    @DisplayName("Equivalent chains share the compiled class")
+    void testCache() throws InvalidSyntaxException, InvalidTypeException {
+        ChainCompiler compiler = new ChainCompiler(2);
+        CompiledChain first = compiler.compile("map{(element+1)}%>%filter{(element>0)}");
+        assertSame(first, compiler.compile("filter{((element+1)>0)}%>%map{(1+element)}"));
+        compiler.compile("map{(element+2)}");
+        compiler.compile("map{(element+3)}");
+        assertEquals(2, compiler.size());
+    }
+
+    @Test
+    @DisplayName("Chains too large for a class file are interpreted")
+    void testLargeChain() {
+        List<ArithmeticExpression> terms = new ArrayList<>();
+        for (int i = 0; i < 1 << 15; i++) {
+            terms.add(Const.of(100000 + i));
+        }
+        while (terms.size() > 1) {
+            List<ArithmeticExpression> sums = new ArrayList<>();
+            for (int i = 0; i < terms.size(); i += 2) {
+                sums.add(Add.of(terms.get(i), terms.get(i + 1)));
+            }
+            terms = sums;
+        }
+        ConvertedChain chain = new ConvertedChain(Bool.of(true), Add.of(Element.of(), terms.get(0)));
+        int[] input = randomInput(100);
+        int[] expected = new int[input.length];
+        new ChainExecutor(chain).execute(input, expected);
+        int[] output = new int[input.length];
+        new ChainCompiler(1).compile(chain).process(input, output);
+        assertArrayEquals(expected, output);
+    }
+}
@@ -0,0 +1,240 @@
+import callchain.converter.ChainConverter;
+import callchain.converter.ConvertedChain;
+import callchain.executor.ChainExecutor;
+import callchain.executor.FileChainExecutor;
+import callchain.executor.ParallelChainExecutor;
+import callchain.executor.PipelinedChainExecutor;
+import callchain.executor.StagedChainExecutor;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Tests of execution of converted chains")
+class ChainExecutorTest {
+
+    private static final int[] BOUNDARIES = {
+            Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1, 0, 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE
+    };
+
+    private static int[] randomInput(int size) {
+        Random random = new Random(42);
+        int[] input = new int[size];
+        for (int i = 0; i < size; i++) {
+            input[i] = i % 2 == 0 ? random.nextInt(201) - 100 : random.nextInt();
+        }
+        return input;
+    }
+
+    /**
+     * Random input followed by {@link #BOUNDARIES} except for {@code excluded} ones.
+     */
+    private static int[] boundaryInput(int size, int... excluded) {
+        IntStream boundaries = Arrays.stream(BOUNDARIES).filter(x -> Arrays.stream(excluded).noneMatch(e -> e == x));
+        return IntStream.concat(Arrays.stream(randomInput(size)), boundaries).toArray();
+    }
+
+    private static int[] execute(String callChain, int[] input) throws InvalidSyntaxException, InvalidTypeException {
+        int[] output = new int[input.length];
+        int size = ChainExecutor.compile(callChain).execute(input, output);
+        return Arrays.copyOf(output, size);
+    }
+
+    private static int[] reference(int[] input, IntUnaryOperator before, IntPredicate filter, IntUnaryOperator after) {
+        return Arrays.stream(input).map(before).filter(filter).map(after).toArray();
+    }
+
+    @Test
+    @DisplayName("Execution gives the same result as the source chain")
+    void testExecution() throws InvalidSyntaxException, InvalidTypeException {
+        int[] input = boundaryInput(10000);
+        int[] notOverflowing = boundaryInput(10000, Integer.MAX_VALUE);
+        assertArrayEquals(
+                reference(notOverflowing, x -> x + 1, x -> x > 2, x -> x * x),
+                execute("map{(element+1)}%>%filter{(element>2)}%>%map{(element*element)}", notOverflowing));
+        assertArrayEquals(
+                reference(input, x -> x, x -> (x > 5 || x < -5) && x > -10, x -> x),
+                execute("filter{((element>5)|(element<-5))}%>%filter{(element>-10)}", input));
+        assertArrayEquals(
+                reference(input, x -> x * x - 3, x -> x * x * x < 1000 || x == 7, x -> 2 * x * x * x - x),
+                execute("map{((element*element)-3)}%>%filter{((((element*element)*element)<1000)|(element=7))}"
+                        + "%>%map{(((2*element)*(element*element))-element)}", input));
+    }
+
+    @Test
+    @DisplayName("Arithmetic overflows as Java int")
+    void testOverflow() throws InvalidSyntaxException, InvalidTypeException {
+        int[] input = boundaryInput(10000);
+        assertArrayEquals(
+                reference(input, x -> x * 65536, x -> x * 65536 == 0, x -> x * x * x * x * x * x * x + 1),
+                execute("map{(element*65536)}%>%filter{((element*65536)=0)}"
+                        + "%>%map{((((((element*element)*element)*element)*element)*element)*element)}%>%map{(element+1)}", input));
+    }
+
+    @Test
+    @DisplayName("Results are written to the specified range of output")
+    void testRanges() throws InvalidSyntaxException, InvalidTypeException {
+        ChainExecutor executor = ChainExecutor.compile("filter{(element>1)}%>%map{(element*10)}");
+        int[] output = new int[6];
+        assertEquals(1, executor.execute(new int[]{5, 1, 2, 3}, 1, 3, output, 4));
+        assertArrayEquals(new int[]{0, 0, 0, 0, 20, 0}, output);
+        assertEquals(0, ChainExecutor.compile("filter{(element<element)}").execute(new int[]{1, 2}, output));
+    }
+
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @DisplayName("Vectorized execution gives the same result as the scalar one")
+    @ValueSource(strings = {
+            "map{(element+1)}%>%filter{(element>2)}%>%map{(element*element)}",
+            "filter{((element>5)|(element<-5))}%>%filter{(element>-10)}",
+            "map{(element*65536)}%>%filter{((element*65536)=0)}%>%map{(element*1000000007)}",
+            "map{(((element*element)*element)-100000)}%>%filter{(((element*element)<40000)|(element=-2147483648))}",
+            "filter{(element<element)}",
+            "map{(element-7)}",
+            "filter{(element>-1000)}%>%map{((((((element*element)*element)*element)*element)*element)+3)}"
+    })
+    void testVectorized(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        int[] input = boundaryInput(10007);
+        ConvertedChain chain = ChainConverter.convert(callChain);
+        int[] expected = new int[input.length + 3];
+        int expectedSize = new ChainExecutor(chain).execute(input, 5, input.length, expected, 3);
+        int[] output = new int[input.length + 3];
+        assertEquals(expectedSize, ChainExecutor.vectorized(chain).execute(input, 5, input.length, output, 3));
+        assertArrayEquals(expected, output);
+    }
+
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @DisplayName("Parallel execution gives the same result as the sequential one")
+    @ValueSource(strings = {
+            "map{(element+1)}%>%filter{(element>2)}%>%map{(element*element)}",
+            "filter{((element>5)|(element<-5))}%>%filter{(element>-10)}",
+            "filter{(element<element)}",
+            "map{(element-7)}"
+    })
+    void testParallel(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        int[] input = boundaryInput(100003);
+        ConvertedChain chain = ChainConverter.convert(callChain);
+        int[] expected = new int[input.length + 3];
+        int expectedSize = new ChainExecutor(chain).execute(input, 5, input.length, expected, 3);
+        int[] output = new int[input.length + 3];
+        try (ParallelChainExecutor executor = new ParallelChainExecutor(chain, 4, 1000)) {
+            assertEquals(expectedSize, executor.execute(input, 5, input.length, output, 3));
+        }
+        assertArrayEquals(expected, output);
+    }
+
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @DisplayName("Execution on files gives the same result as on arrays")
+    @ValueSource(strings = {
+            "map{(element+1)}%>%filter{(element>2)}%>%map{(element*element)}",
+            "filter{(element<element)}",
+            "map{(element-7)}"
+    })
+    void testFiles(String callChain, @TempDir Path directory)
+            throws InvalidSyntaxException, InvalidTypeException, IOException {
+        int[] input = boundaryInput(10007);
+        ByteBuffer bytes = ByteBuffer.allocate(input.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asIntBuffer().put(input);
+        Path inputFile = directory.resolve("input.bin");
+        Path outputFile = directory.resolve("output.bin");
+        Files.write(inputFile, bytes.array());
+
+        ConvertedChain chain = ChainConverter.convert(callChain);
+        int[] expected = new int[input.length];
+        int expectedSize = new ChainExecutor(chain).execute(input, expected);
+        assertEquals(expectedSize, new FileChainExecutor(chain, 1000).execute(inputFile, outputFile));
+        int[] output = new int[expectedSize];
+        ByteBuffer.wrap(Files.readAllBytes(outputFile)).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(output);
+        assertArrayEquals(Arrays.copyOf(expected, expectedSize), output);
+    }
+
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @DisplayName("Pipelined execution on streams gives the same result as on arrays")
+    @ValueSource(strings = {
+            "map{(element+1)}%>%filter{(element>2)}%>%map{(element*element)}",
+            "filter{(element<element)}",
+            "map{(element-7)}"
+    })
+    void testPipelined(String callChain) throws InvalidSyntaxException, InvalidTypeException, IOException {
+        int[] input = boundaryInput(10007);
+        ByteBuffer bytes = ByteBuffer.allocate(input.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asIntBuffer().put(input);
+
+        ConvertedChain chain = ChainConverter.convert(callChain);
+        int[] expected = new int[input.length];
+        int expectedSize = new ChainExecutor(chain).execute(input, expected);
+        PipelinedChainExecutor executor = new PipelinedChainExecutor(chain, 3, 100, 4);
+        for (int run = 0; run < 2; run++) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            executor.execute(Channels.newChannel(new ByteArrayInputStream(bytes.array())), Channels.newChannel(output));
+            int[] result = new int[output.size() / Integer.BYTES];
+            ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(result);
+            assertArrayEquals(Arrays.copyOf(expected, expectedSize), result);
+        }
+        assertThrows(IOException.class, () -> executor.execute(
+                Channels.newChannel(new ByteArrayInputStream(new byte[4001])),
+                Channels.newChannel(new ByteArrayOutputStream())));
+    }
+
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @DisplayName("Converted chain gives the same result as the original one executed call by call")
+    @MethodSource("stagedArguments")
+    void testStaged(String callChain, int[] overflowing) throws InvalidSyntaxException, InvalidTypeException {
+        int[] input = boundaryInput(10007, overflowing);
+        int[] expected = new int[input.length + 3];
+        int expectedSize = StagedChainExecutor.compile(callChain).execute(input, 5, input.length, expected, 3);
+        int[] output = new int[input.length + 3];
+        assertEquals(expectedSize, ChainExecutor.compile(callChain).execute(input, 5, input.length, output, 3));
+        assertArrayEquals(expected, output);
+    }
+
+    /**
+     * Chains with boundary values on which their comparisons overflow, see the limitation of {@link ChainExecutor}.
+     */
+    private static Stream<Arguments> stagedArguments() {
+        return Stream.of(
+                Arguments.of("map{(element+1)}%>%filter{(element>2)}%>%map{(element*element)}",
+                        new int[]{Integer.MAX_VALUE}),
+                Arguments.of("filter{((element>5)|(element<-5))}%>%filter{(element>-10)}", new int[0]),
+                Arguments.of("map{((element*element)-3)}%>%filter{((((element*element)*element)<1000)|(element=7))}"
+                        + "%>%map{(((2*element)*(element*element))-element)}%>%filter{(element<100000)}", new int[0]),
+                Arguments.of("map{(element*65536)}%>%filter{((element*65536)=0)}%>%map{(element+1)}", new int[0]),
+                Arguments.of("filter{(element<element)}", new int[0]),
+                Arguments.of("map{(element-7)}", new int[0])
+        );
+    }
+
+    @Test
+    @DisplayName("Converted comparisons differ from the original ones when they overflow")
+    void testOverflowingComparison() throws InvalidSyntaxException, InvalidTypeException {
+        String callChain = "map{(element+1)}%>%filter{(element>2)}";
+        int[] input = {Integer.MAX_VALUE, 5};
+        int[] output = new int[input.length];
+        assertEquals(1, StagedChainExecutor.compile(callChain).execute(input, output));
+        assertEquals(6, output[0]);
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, 6}, execute(callChain, input));
+    }
+}
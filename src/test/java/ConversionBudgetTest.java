@@ -0,0 +1,104 @@
+import callchain.cache.ConversionCache;
+import callchain.converter.BatchConverter;
+import callchain.converter.CancellationToken;
+import callchain.converter.ChainConverter;
+import callchain.converter.ConversionBudget;
+import callchain.converter.ConversionResult;
+import callchain.converter.Converter;
+import callchain.converter.LogicBackend;
+import exceptions.BudgetExceededException;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Tests of conversion budgets")
+class ConversionBudgetTest {
+
+    private static final Converter CONVERTER = callChain -> ChainConverter.convertToString(callChain, LogicBackend.REWRITING);
+
+    /**
+     * Every map squares the previous one, so the degree of the composition doubles with every call.
+     */
+    private static String squaringChain(int maps) {
+        StringBuilder callChain = new StringBuilder("filter{(element>0)}");
+        for (int i = 0; i < maps; i++) {
+            callChain.append("%>%map{((element*element)+1)}");
+        }
+        return callChain.toString();
+    }
+
+    @Test
+    @DisplayName("Exceeded limits fail with their kinds")
+    void testLimits() {
+        String callChain = squaringChain(24);
+        assertEquals(BudgetExceededException.Limit.DEGREE, limitOf(ConversionBudget.UNLIMITED.withMaxDegree(1000), callChain));
+        assertEquals(BudgetExceededException.Limit.NODES, limitOf(ConversionBudget.UNLIMITED.withMaxNodes(1000), callChain));
+        assertEquals(BudgetExceededException.Limit.DEADLINE,
+                limitOf(ConversionBudget.UNLIMITED.withTimeout(10, TimeUnit.MILLISECONDS), callChain));
+
+        ConversionResult result = ConversionBudget.UNLIMITED.withMaxDegree(8).limit(CONVERTER).tryConvert(callChain);
+        assertEquals(ConversionResult.ErrorKind.BUDGET, result.getErrorKind());
+        assertEquals(-1, result.getErrorPosition());
+        assertTrue(BatchConverter.convertLine(ConversionBudget.UNLIMITED.withMaxDegree(8).limit(CONVERTER), callChain)
+                .startsWith("BUDGET ERROR: "));
+    }
+
+    @Test
+    @DisplayName("Chains within budget are converted as usual")
+    void testWithinBudget() throws InvalidSyntaxException, InvalidTypeException {
+        Converter converter = ConversionBudget.UNLIMITED.withMaxNodes(10000).withMaxDegree(64)
+                .withTimeout(10, TimeUnit.SECONDS).limit(CONVERTER);
+        for (int maps = 0; maps <= 5; maps++) {
+            assertEquals(CallChainConverter.convert(squaringChain(maps)), converter.convert(squaringChain(maps)));
+        }
+        assertThrows(InvalidSyntaxException.class, () -> converter.convert("map{(element+1)"));
+        // the budget is unbound after the conversion
+        assertEquals(CallChainConverter.convert(squaringChain(7)), CONVERTER.convert(squaringChain(7)));
+    }
+
+    @Test
+    @DisplayName("Conversion is cancelled from another thread")
+    void testCancellation() throws InterruptedException {
+        CancellationToken token = new CancellationToken();
+        Converter converter = ConversionBudget.UNLIMITED.limit(CONVERTER, token);
+        ConversionResult[] result = new ConversionResult[1];
+        Thread thread = new Thread(() -> result[0] = converter.tryConvert(squaringChain(30)));
+        thread.start();
+        Thread.sleep(20);
+        token.cancel();
+        thread.join(10000);
+        assertEquals(ConversionResult.ErrorKind.BUDGET, result[0].getErrorKind());
+        assertEquals(BudgetExceededException.Limit.CANCELLED, limitOf(converter, "map{(element+1)}"));
+    }
+
+    @Test
+    @DisplayName("Exceeded budgets are not memoized")
+    void testCache() {
+        AtomicInteger conversions = new AtomicInteger();
+        ConversionCache cache = new ConversionCache(ConversionBudget.UNLIMITED.withMaxDegree(8).limit(callChain -> {
+            conversions.incrementAndGet();
+            return CONVERTER.convert(callChain);
+        }), 16);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ConversionResult.ErrorKind.BUDGET, cache.tryConvert(squaringChain(4)).getErrorKind());
+        }
+        assertEquals(3, conversions.get());
+        assertEquals(0, cache.size());
+    }
+
+    private static BudgetExceededException.Limit limitOf(ConversionBudget budget, String callChain) {
+        return limitOf(budget.limit(CONVERTER), callChain);
+    }
+
+    private static BudgetExceededException.Limit limitOf(Converter converter, String callChain) {
+        return assertThrows(BudgetExceededException.class, () -> converter.convert(callChain)).getLimit();
+    }
+}
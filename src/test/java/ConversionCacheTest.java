@@ -0,0 +1,72 @@
+import callchain.cache.ConversionCache;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Tests of conversion cache")
+class ConversionCacheTest {
+
+    @Test
+    @DisplayName("Repeated chains are converted once")
+    void testRepeatedChains() throws InvalidSyntaxException, InvalidTypeException {
+        AtomicInteger conversions = new AtomicInteger();
+        ConversionCache cache = new ConversionCache(chain -> {
+            conversions.incrementAndGet();
+            return CallChainConverter.convert(chain);
+        }, 16);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("filter{(0=0)}%>%map{(1+element)}", cache.convert("map{(element+1)}"));
+        }
+        assertEquals(1, conversions.get());
+        assertEquals(9, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Syntax and type errors are memoized")
+    void testErrors() {
+        AtomicInteger conversions = new AtomicInteger();
+        ConversionCache cache = new ConversionCache(chain -> {
+            conversions.incrementAndGet();
+            return CallChainConverter.convert(chain);
+        }, 16);
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(InvalidSyntaxException.class, () -> cache.convert("map{(1+1)(1+1)}"));
+            assertThrows(InvalidTypeException.class, () -> cache.convert("filter{(element+1)}"));
+        }
+        assertEquals(2, conversions.get());
+    }
+
+    @Test
+    @DisplayName("Cache size is bounded")
+    void testEviction() throws InvalidSyntaxException, InvalidTypeException {
+        ConversionCache cache = new ConversionCache(CallChainConverter::convert, 8, 1);
+        for (int i = 0; i < 100; i++) {
+            cache.convert("map{(element+" + i + ")}");
+        }
+        assertEquals(8, cache.size());
+        assertEquals(92, cache.getEvictionCount());
+        assertTrue(cache.getHitCount() == 0);
+    }
+
+    @Test
+    @DisplayName("Segments together hold at most the maximum size")
+    void testSegmentedSize() throws InvalidSyntaxException, InvalidTypeException {
+        for (int maximumSize : new int[]{1, 3, 65, 100, 1000}) {
+            ConversionCache cache = new ConversionCache(CallChainConverter::convert, maximumSize);
+            for (int i = 0; i < 4 * maximumSize + 100; i++) {
+                cache.convert("map{(element+" + i + ")}");
+            }
+            assertTrue(cache.size() <= maximumSize, "maximum size " + maximumSize);
+        }
+    }
+}
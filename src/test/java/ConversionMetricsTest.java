@@ -0,0 +1,117 @@
+import callchain.cache.PrefixCache;
+import callchain.converter.ConversionBudget;
+import callchain.converter.Converter;
+import callchain.metrics.ConversionListener;
+import callchain.metrics.ConversionMetrics;
+import callchain.metrics.ConversionRecord;
+import callchain.metrics.ConversionStatistics;
+import callchain.metrics.Phase;
+import exceptions.BudgetExceededException;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Tests of conversion metrics")
+class ConversionMetricsTest {
+
+    @Test
+    @DisplayName("Listener receives sizes, phases and errors of conversions")
+    void testListener() throws InvalidSyntaxException, InvalidTypeException {
+        List<ConversionRecord> records = new ArrayList<>();
+        ConversionListener listener = records::add;
+        String callChain = "map{(element+10)}%>%filter{(element>10)}%>%map{(element*element)}";
+        ConversionMetrics.addListener(listener);
+        try {
+            CallChainConverter.convert(callChain);
+            assertThrows(InvalidTypeException.class, () -> CallChainConverter.convert("map{(element>10)}"));
+            assertThrows(InvalidSyntaxException.class, () -> CallChainConverter.convert("map{element"));
+        } finally {
+            ConversionMetrics.removeListener(listener);
+        }
+        assertFalse(ConversionMetrics.isEnabled());
+        assertEquals(3, records.size());
+
+        ConversionRecord record = records.get(0);
+        assertEquals(callChain.length(), record.getInputLength());
+        assertEquals("filter{(element>0)}%>%map{((100+(20*element))+(element*element))}".length(), record.getOutputLength());
+        assertNull(record.getErrorType());
+        assertEquals(5, record.getNodesBefore());
+        assertEquals(9, record.getNodesAfter());
+        for (Phase phase : Phase.values()) {
+            assertTrue(record.getNanos(phase) > 0, phase.name());
+        }
+        assertEquals("InvalidTypeException", records.get(1).getErrorType());
+        assertEquals("InvalidSyntaxException", records.get(2).getErrorType());
+        assertEquals(0, records.get(2).getNodesAfter());
+    }
+
+    @Test
+    @DisplayName("Registering statistics again removes the previous listener")
+    void testRegisterAgain() throws InvalidSyntaxException, InvalidTypeException {
+        ConversionStatistics previous = ConversionStatistics.register();
+        ConversionStatistics statistics = ConversionStatistics.register();
+        try {
+            CallChainConverter.convert("map{(element+1)}");
+        } finally {
+            ConversionMetrics.removeListener(statistics);
+        }
+        assertEquals(0, previous.getConversions());
+        assertEquals(1, statistics.getConversions());
+    }
+
+    @Test
+    @DisplayName("Statistics count conversions and errors")
+    void testStatistics() throws InvalidSyntaxException, InvalidTypeException {
+        ConversionStatistics statistics = ConversionStatistics.register();
+        try {
+            for (int i = 0; i < 10; i++) {
+                CallChainConverter.convert("filter{(element>" + i + ")}%>%map{(element+1)}");
+            }
+            assertThrows(InvalidSyntaxException.class, () -> CallChainConverter.convert("filter"));
+        } finally {
+            ConversionMetrics.removeListener(statistics);
+        }
+        assertEquals(11, statistics.getConversions());
+        assertEquals(1, statistics.getSyntaxErrors());
+        assertEquals(0, statistics.getTypeErrors());
+        assertEquals(10, statistics.getCount(Phase.LOGIC));
+        assertTrue(statistics.getPercentileMicros("logic", 50) <= statistics.getPercentileMicros("logic", 100));
+        assertTrue(statistics.getMeanMicros(Phase.PARSE) > 0);
+        statistics.reset();
+        assertEquals(0, statistics.getConversions());
+    }
+
+    @Test
+    @DisplayName("Conversions of prefix cache and budget errors are counted")
+    void testPrefixCacheStatistics() throws InvalidSyntaxException, InvalidTypeException {
+        PrefixCache cache = new PrefixCache(100);
+        Converter limited = ConversionBudget.UNLIMITED.withMaxDegree(4).limit(cache);
+        ConversionStatistics statistics = ConversionStatistics.register();
+        try {
+            assertEquals("filter{(element>0)}%>%map{(1+element)}", limited.convert("map{(element+1)}%>%filter{(element>1)}"));
+            limited.convert("map{(element+1)}%>%filter{(element>1)}%>%map{(element*element)}");
+            assertThrows(BudgetExceededException.class, () -> limited.convert(
+                    "map{(element*element)}%>%map{(element*element)}%>%map{(element*element)}"));
+            assertThrows(InvalidTypeException.class, () -> limited.convert("filter{(element+1)}"));
+        } finally {
+            ConversionMetrics.removeListener(statistics);
+        }
+        assertEquals(4, statistics.getConversions());
+        assertEquals(1, statistics.getBudgetErrors());
+        assertEquals(1, statistics.getTypeErrors());
+        assertEquals(0, statistics.getOtherErrors());
+        assertEquals(1, statistics.getCount(Phase.LOGIC));
+        assertEquals(2, statistics.getCount(Phase.RENDER));
+        assertTrue(statistics.getMeanNodesAfter() > 0);
+    }
+}
@@ -0,0 +1,112 @@
+import callchain.server.ConversionServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Tests of conversion server")
+class ConversionServerTest {
+
+    @Test
+    @DisplayName("Pipelined requests are answered in order")
+    void testPipelining() throws Exception {
+        try (ConversionServer server = ConversionServer.bind(0, CallChainConverter::convert, 2);
+             Socket socket = connect(server)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            for (int i = 0; i < 100; i++) {
+                writeRequest(out, "map{(element+" + i + ")}");
+            }
+            writeRequest(out, "map{(element+1)(1+1)}");
+            writeRequest(out, "filter{(element+1)}");
+            out.flush();
+
+            for (int i = 0; i < 100; i++) {
+                assertEquals(ConversionServer.STATUS_OK, in.readByte());
+                assertEquals(CallChainConverter.convert("map{(element+" + i + ")}"), readText(in));
+            }
+            assertEquals(ConversionServer.STATUS_SYNTAX_ERROR, in.readByte());
+            readText(in);
+            assertEquals(ConversionServer.STATUS_TYPE_ERROR, in.readByte());
+            readText(in);
+            assertEquals(102, server.getRequestCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent conversions are limited")
+    void testConcurrencyLimit() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try (ConversionServer server = ConversionServer.bind(0, callChain -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(1);
+                return CallChainConverter.convert(callChain);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        }, 2)) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int client = 0; client < 8; client++) {
+                results.add(clients.submit(() -> {
+                    try (Socket socket = connect(server)) {
+                        DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                        DataInputStream in = new DataInputStream(socket.getInputStream());
+                        int answered = 0;
+                        for (int i = 0; i < 20; i++) {
+                            writeRequest(out, "filter{(element>" + i + ")}");
+                            out.flush();
+                            if (in.readByte() == ConversionServer.STATUS_OK && !readText(in).isEmpty()) {
+                                answered++;
+                            }
+                        }
+                        return answered;
+                    }
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(20, result.get());
+            }
+            assertEquals(8, server.getConnectionCount());
+        } finally {
+            clients.shutdown();
+        }
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    private static Socket connect(ConversionServer server) throws IOException {
+        InetSocketAddress address = (InetSocketAddress) server.getLocalAddress();
+        return new Socket(address.getAddress(), address.getPort());
+    }
+
+    private static void writeRequest(DataOutputStream out, String callChain) throws IOException {
+        byte[] bytes = callChain.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,53 @@
+import callchain.converter.ChainConverter;
+import callchain.converter.ConvertedChain;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import expressions.types.ArithmeticExpression;
+import expressions.types.ExpressionWriter;
+import expressions.types.operations.Add;
+import expressions.types.primitives.Const;
+import expressions.types.primitives.Element;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Tests of rendering of expressions")
+class ExpressionWriterTest {
+
+    @Test
+    @DisplayName("Powers of element are rendered as nested products")
+    void testElementPower() {
+        assertEquals("element", Element.of().toString());
+        assertEquals("((((element*element)*element)*element)*element)", Element.of(5).toString());
+    }
+
+    @Test
+    @DisplayName("Deep expressions are rendered without recursion")
+    void testDeepExpression() throws IOException {
+        int depth = 100000;
+        ArithmeticExpression expression = Element.of();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            expected.append('(');
+        }
+        expected.append("element");
+        for (int i = 0; i < depth; i++) {
+            expression = Add.of(expression, Const.of(i));
+            expected.append('+').append(i).append(')');
+        }
+        assertEquals(expected.toString(), expression.toString());
+        assertEquals(expected.toString(), ExpressionWriter.write(expression, new StringWriter()).toString());
+    }
+
+    @Test
+    @DisplayName("Converted chain is written to any Appendable")
+    void testConvertedChain() throws InvalidSyntaxException, InvalidTypeException, IOException {
+        ConvertedChain chain = ChainConverter.convert("map{(element+10)}%>%filter{(element>10)}%>%map{(element*element)}");
+        assertEquals("filter{(element>0)}%>%map{((100+(20*element))+(element*element))}", chain.toString());
+        assertEquals(chain.toString(), chain.writeTo(new StringWriter()).toString());
+    }
+}
@@ -0,0 +1,67 @@
+import callchain.converter.ChainConverter;
+import callchain.converter.ConvertedChain;
+import callchain.converter.LogicBackend;
+import callchain.converter.OutputForm;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Tests of output forms")
+class OutputFormTest {
+
+    @DisplayName("All forms are equivalent to the expanded one")
+    @ParameterizedTest(name = "{index} test: source={0}")
+    @ValueSource(strings = {
+            "map{(element+1)}",
+            "map{(element*element)}%>%map{(element-3)}%>%filter{(element>0)}",
+            "map{((element*element)+1)}%>%map{((element*element)-1)}%>%filter{((element>3)|(element<-10))}",
+            "map{(((element*element)*element)*-2)}%>%map{(element+7)}%>%map{(element*element)}",
+            "filter{(element>1)}%>%filter{(element<0)}",
+            "map{(element*0)}"
+    })
+    void testEquivalence(String callChain) throws InvalidSyntaxException, InvalidTypeException {
+        String expanded = ChainConverter.convertToString(callChain, LogicBackend.REWRITING);
+        for (OutputForm form : OutputForm.values()) {
+            String converted = ChainConverter.convertToString(callChain, LogicBackend.REWRITING, form);
+            assertEquals(expanded, CallChainConverter.convert(converted), form.name());
+        }
+        assertEquals(expanded, ChainConverter.convertToString(callChain, LogicBackend.REWRITING, OutputForm.EXPANDED));
+    }
+
+    @Test
+    @DisplayName("Horner form takes fewer operations for dense polynomials")
+    void testCost() throws InvalidSyntaxException, InvalidTypeException {
+        String callChain = "map{((element*element)+1)}%>%map{((element*element)+1)}";
+        assertEquals("filter{(0=0)}%>%map{((((element*element)+2)*(element*element))+2)}",
+                ChainConverter.convertToString(callChain, LogicBackend.REWRITING, OutputForm.HORNER));
+
+        ConvertedChain expanded = ChainConverter.convert(callChain);
+        ConvertedChain horner = OutputForm.HORNER.apply(expanded);
+        assertEquals(7, expanded.estimateCost());
+        assertEquals(5, horner.estimateCost());
+        assertEquals(horner.toString(), OutputForm.AUTO.apply(expanded).toString());
+
+        StringBuilder dense = new StringBuilder("map{(element+1)}");
+        for (int i = 0; i < 5; i++) {
+            dense.append("%>%map{((element*element)+element)}");
+        }
+        ConvertedChain chain = ChainConverter.convert(dense.toString());
+        assertTrue(OutputForm.HORNER.apply(chain).estimateCost() * 5 < chain.estimateCost());
+    }
+
+    @Test
+    @DisplayName("Auto form keeps the expanded one when it is not more expensive")
+    void testAuto() throws InvalidSyntaxException, InvalidTypeException {
+        for (String callChain : new String[]{"map{(element+1)}", "map{(element*element)}%>%filter{(element>0)}",
+                "map{((3*element)-5)}"}) {
+            assertEquals(ChainConverter.convertToString(callChain, LogicBackend.REWRITING),
+                    ChainConverter.convertToString(callChain, LogicBackend.REWRITING, OutputForm.AUTO));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import expressions.polynomial.Polynomial;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("Tests of sparse polynomial arithmetic")
+class PolynomialTest {
+
+    private static final Polynomial X = Polynomial.monomial(1, 1);
+    private static final Polynomial ONE = Polynomial.constant(1);
+
+    @Test
+    @DisplayName("Terms are kept in ascending order of powers")
+    void testOrder() {
+        Polynomial p = Polynomial.monomial(3, 5).add(Polynomial.monomial(-2, 1)).add(Polynomial.constant(7));
+        assertEquals("((7-(2*element))+(3*((((element*element)*element)*element)*element)))", p.toString());
+    }
+
+    @Test
+    @DisplayName("Cancelled terms are removed")
+    void testCancellation() {
+        Polynomial p = X.add(ONE).subtract(X);
+        assertEquals(ONE, p);
+        assertSame(Polynomial.ZERO, p.subtract(ONE));
+        assertEquals("0", Polynomial.ZERO.toString());
+    }
+
+    @Test
+    @DisplayName("Dense and sparse multiplication give the same result")
+    void testMultiply() {
+        Polynomial dense = X.add(ONE);
+        Polynomial result = ONE;
+        for (int i = 0; i < 10; i++) {
+            result = result.multiply(dense);
+        }
+        assertEquals(10, result.degree());
+        assertEquals(252, result.getCoefficient(5));
+
+        Polynomial sparse = Polynomial.monomial(1, 1000).add(ONE);
+        Polynomial square = sparse.multiply(sparse);
+        assertEquals(Polynomial.monomial(1, 2000).add(Polynomial.monomial(2, 1000)).add(ONE), square);
+    }
+
+    @Test
+    @DisplayName("Coefficients overflow as Java int")
+    void testOverflow() {
+        Polynomial p = Polynomial.constant(Integer.MAX_VALUE).multiply(Polynomial.constant(2)).add(X);
+        assertEquals(Integer.MAX_VALUE * 2, p.getConstant());
+        assertSame(Polynomial.ZERO, Polynomial.monomial(1 << 16, 1).scale(1 << 16));
+    }
+
+    @Test
+    @DisplayName("Composition substitutes inner polynomial for the variable")
+    void testCompose() {
+        Polynomial square = Polynomial.monomial(1, 2);
+        Polynomial shifted = X.add(Polynomial.constant(2));
+        assertEquals(Polynomial.constant(4).add(Polynomial.monomial(4, 1)).add(square), square.compose(shifted));
+        assertEquals(Polynomial.monomial(1, 4).add(Polynomial.constant(2)), shifted.compose(square.multiply(square)));
+
+        Polynomial p = Polynomial.monomial(3, 7).subtract(Polynomial.monomial(5, 2)).add(Polynomial.constant(1));
+        Polynomial q = Polynomial.monomial(2, 3).add(Polynomial.constant(-1));
+        Polynomial expected = Polynomial.ZERO;
+        for (int i = 0; i < p.size(); i++) {
+            Polynomial power = ONE;
+            for (int k = 0; k < p.getPow(i); k++) {
+                power = power.multiply(q);
+            }
+            expected = expected.add(power.scale(p.getCoefficient(i)));
+        }
+        assertEquals(expected, p.compose(q));
+    }
+
+    @Test
+    @DisplayName("Karatsuba multiplication gives the same result as schoolbook multiplication")
+    void testKaratsuba() {
+        Random random = new Random(42);
+        for (int attempt = 0; attempt < 20; attempt++) {
+            Polynomial a = randomDense(random, 30 + random.nextInt(300));
+            Polynomial b = randomDense(random, 30 + random.nextInt(300));
+            Polynomial expected = Polynomial.ZERO;
+            for (int i = 0; i < b.size(); i++) {
+                Polynomial term = Polynomial.monomial(b.getCoefficient(i), b.getPow(i));
+                expected = expected.add(a.multiply(term));
+            }
+            assertEquals(expected, a.multiply(b));
+        }
+    }
+
+    private static Polynomial randomDense(Random random, int degree) {
+        int[] coefficients = new int[degree + 1];
+        for (int i = 0; i <= degree; i++) {
+            coefficients[i] = random.nextInt();
+        }
+        return Polynomial.fromDense(coefficients);
+    }
+}
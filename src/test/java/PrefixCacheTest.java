@@ -0,0 +1,61 @@
+import callchain.cache.PrefixCache;
+import exceptions.InvalidSyntaxException;
+import exceptions.InvalidTypeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Tests of prefix cache")
+class PrefixCacheTest {
+
+    private static final String PREFIX = "map{(element+10)}%>%filter{(element>10)}%>%map{(element*element)}";
+
+    @Test
+    @DisplayName("Chains resume from the longest cached prefix")
+    void testSharedPrefixes() throws InvalidSyntaxException, InvalidTypeException {
+        PrefixCache cache = new PrefixCache(64);
+        assertEquals(CallChainConverter.convert(PREFIX), cache.convert(PREFIX));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getMissCount());
+
+        for (int i = 0; i < 4; i++) {
+            String callChain = PREFIX + "%>%filter{(element<" + i + ")}%>%map{(element-" + i + ")}";
+            assertEquals(CallChainConverter.convert(callChain), cache.convert(callChain));
+        }
+        assertEquals(11, cache.size());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, cache.getFullHitCount());
+
+        assertEquals(CallChainConverter.convert(PREFIX), cache.convert(PREFIX));
+        assertEquals(1, cache.getFullHitCount());
+        assertEquals(6, cache.getLookupCount());
+        assertEquals(15.0 / 6, cache.getMeanHitDepth(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Cold branches are evicted from their ends")
+    void testEviction() throws InvalidSyntaxException, InvalidTypeException {
+        PrefixCache cache = new PrefixCache(8);
+        for (int i = 0; i < 20; i++) {
+            cache.convert(PREFIX + "%>%map{(element+" + i + ")}");
+            cache.convert(PREFIX);
+        }
+        assertEquals(8, cache.size());
+        assertEquals(15, cache.getEvictionCount());
+        assertEquals(20, cache.getFullHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Syntax and type errors are not cached")
+    void testErrors() throws InvalidSyntaxException, InvalidTypeException {
+        PrefixCache cache = new PrefixCache(16);
+        assertThrows(InvalidSyntaxException.class, () -> cache.convert(PREFIX + "%>%map{element"));
+        assertThrows(InvalidTypeException.class, () -> cache.convert(PREFIX + "%>%filter{(element+1)}"));
+        assertEquals(0, cache.size());
+        assertEquals("filter{(1=0)}%>%map{element}", cache.convert("filter{(element>1)}%>%filter{(element<0)}"));
+        assertThrows(IllegalArgumentException.class, () -> new PrefixCache(0));
+    }
+}